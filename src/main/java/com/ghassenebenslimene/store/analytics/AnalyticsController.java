@@ -0,0 +1,65 @@
+package com.ghassenebenslimene.store.analytics;
+
+import com.ghassenebenslimene.store.common.ErrorDto;
+import com.ghassenebenslimene.store.orders.PaymentStatus;
+import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@AllArgsConstructor
+@RestController
+@RequestMapping("/admin/analytics")
+public class AnalyticsController {
+    private static final int DEFAULT_DAYS = 30;
+
+    private final SalesRollupService salesRollupService;
+
+    @GetMapping("/daily")
+    public List<DailySalesDto> getDailySales(
+        @RequestParam(name = "status", defaultValue = "PAID") PaymentStatus status,
+        @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        to = to != null ? to : LocalDate.now();
+        from = from != null ? from : to.minusDays(DEFAULT_DAYS - 1);
+        return salesRollupService.getDailySales(status, from, to);
+    }
+
+    @GetMapping("/categories")
+    public List<SalesBreakdownDto> getCategorySales(
+        @RequestParam(name = "status", defaultValue = "PAID") PaymentStatus status,
+        @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @RequestParam(name = "limit", defaultValue = "20") int limit
+    ) {
+        to = to != null ? to : LocalDate.now();
+        from = from != null ? from : to.minusDays(DEFAULT_DAYS - 1);
+        return salesRollupService.getBreakdown(SalesDimension.CATEGORY, status, from, to, limit);
+    }
+
+    @GetMapping("/products")
+    public List<SalesBreakdownDto> getProductSales(
+        @RequestParam(name = "status", defaultValue = "PAID") PaymentStatus status,
+        @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @RequestParam(name = "limit", defaultValue = "20") int limit
+    ) {
+        to = to != null ? to : LocalDate.now();
+        from = from != null ? from : to.minusDays(DEFAULT_DAYS - 1);
+        return salesRollupService.getBreakdown(SalesDimension.PRODUCT, status, from, to, limit);
+    }
+
+    @PostMapping("/backfill")
+    public SalesBackfillDto backfill() {
+        return new SalesBackfillDto(salesRollupService.backfill());
+    }
+
+    @ExceptionHandler(InvalidSalesRangeException.class)
+    public ResponseEntity<ErrorDto> handleInvalidRange(InvalidSalesRangeException ex) {
+        return ResponseEntity.badRequest().body(new ErrorDto(ex.getMessage()));
+    }
+}
@@ -0,0 +1,16 @@
+package com.ghassenebenslimene.store.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@AllArgsConstructor
+@Data
+public class DailySalesDto {
+    private LocalDate day;
+    private long orders;
+    private long units;
+    private BigDecimal revenue;
+}
@@ -0,0 +1,7 @@
+package com.ghassenebenslimene.store.analytics;
+
+public class InvalidSalesRangeException extends RuntimeException {
+    public InvalidSalesRangeException() {
+        super("from must not be after to, and the range must not exceed " + SalesRollupService.MAX_DAYS + " days");
+    }
+}
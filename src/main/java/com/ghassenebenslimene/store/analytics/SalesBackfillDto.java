@@ -0,0 +1,10 @@
+package com.ghassenebenslimene.store.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@AllArgsConstructor
+@Data
+public class SalesBackfillDto {
+    private long ordersRolledUp;
+}
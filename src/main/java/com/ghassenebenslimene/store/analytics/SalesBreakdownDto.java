@@ -0,0 +1,16 @@
+package com.ghassenebenslimene.store.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@AllArgsConstructor
+@Data
+public class SalesBreakdownDto {
+    // Category or product id; 0 groups products without a category.
+    private Long id;
+    private long orders;
+    private long units;
+    private BigDecimal revenue;
+}
@@ -0,0 +1,74 @@
+package com.ghassenebenslimene.store.analytics;
+
+import com.ghassenebenslimene.store.orders.OrderRollupState;
+import com.ghassenebenslimene.store.orders.PaymentStatus;
+import com.ghassenebenslimene.store.orders.SalesLine;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Signed changes to sales_rollups rows, summed per row. Rows are kept in key
+ * order so concurrent writers upsert them in the same order.
+ */
+class SalesDelta {
+    private final Map<Key, long[]> rows = new TreeMap<>();
+
+    /**
+     * Adds ({@code sign} 1) or removes ({@code sign} -1) one order counted
+     * under {@code status}. The order is counted once in its day's total,
+     * once per category it has lines in and once per product.
+     */
+    void add(OrderRollupState order, PaymentStatus status, List<SalesLine> lines, int sign) {
+        var day = order.getCreatedAt().toLocalDate();
+        long units = 0;
+        long revenue = 0;
+        var categories = new HashSet<Long>();
+        for (var line : lines) {
+            var categoryId = line.getCategoryId() != null ? line.getCategoryId().longValue() : 0L;
+            var lineUnits = line.getQuantity();
+            var lineRevenue = line.getTotalPrice().cents();
+
+            add(new Key(day, status, SalesDimension.CATEGORY, categoryId),
+                categories.add(categoryId) ? sign : 0, sign * lineUnits, sign * lineRevenue);
+            add(new Key(day, status, SalesDimension.PRODUCT, line.getProductId()),
+                sign, sign * lineUnits, sign * lineRevenue);
+            units += lineUnits;
+            revenue += lineRevenue;
+        }
+        add(new Key(day, status, SalesDimension.TOTAL, 0), sign, sign * units, sign * revenue);
+    }
+
+    void forEach(BiConsumer<Key, long[]> consumer) {
+        rows.forEach((key, totals) -> {
+            if (totals[0] != 0 || totals[1] != 0 || totals[2] != 0) {
+                consumer.accept(key, totals);
+            }
+        });
+    }
+
+    private void add(Key key, long orders, long units, long revenueCents) {
+        var totals = rows.computeIfAbsent(key, k -> new long[3]);
+        totals[0] += orders;
+        totals[1] += units;
+        totals[2] += revenueCents;
+    }
+
+    record Key(LocalDate day, PaymentStatus status, SalesDimension dimension, long dimensionId)
+        implements Comparable<Key> {
+        private static final Comparator<Key> ORDER = Comparator.comparing(Key::day)
+            .thenComparing(Key::status)
+            .thenComparing(Key::dimension)
+            .thenComparingLong(Key::dimensionId);
+
+        @Override
+        public int compareTo(Key other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.ghassenebenslimene.store.analytics;
+
+public enum SalesDimension {
+    // Whole store; dimension_id is 0.
+    TOTAL,
+    // dimension_id is the category id, 0 for products without a category.
+    CATEGORY,
+    PRODUCT
+}
@@ -0,0 +1,46 @@
+package com.ghassenebenslimene.store.analytics;
+
+import com.ghassenebenslimene.store.orders.PaymentStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Orders, units and revenue for one day, order status and dimension value.
+ * Rows are only ever changed by signed deltas, see {@link SalesRollupService}.
+ */
+@Getter
+@Setter
+@Entity
+@IdClass(SalesRollupId.class)
+@Table(name = "sales_rollups")
+public class SalesRollup {
+    @Id
+    @Column(name = "sales_day")
+    private LocalDate salesDay;
+
+    @Id
+    @Column(name = "status")
+    @Enumerated(EnumType.STRING)
+    private PaymentStatus status;
+
+    @Id
+    @Column(name = "dimension")
+    @Enumerated(EnumType.STRING)
+    private SalesDimension dimension;
+
+    @Id
+    @Column(name = "dimension_id")
+    private Long dimensionId;
+
+    @Column(name = "order_count")
+    private long orderCount;
+
+    @Column(name = "unit_count")
+    private long unitCount;
+
+    @Column(name = "revenue_cents")
+    private long revenueCents;
+}
@@ -0,0 +1,19 @@
+package com.ghassenebenslimene.store.analytics;
+
+import com.ghassenebenslimene.store.orders.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class SalesRollupId implements Serializable {
+    private LocalDate salesDay;
+    private PaymentStatus status;
+    private SalesDimension dimension;
+    private Long dimensionId;
+}
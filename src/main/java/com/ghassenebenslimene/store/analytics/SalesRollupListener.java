@@ -0,0 +1,77 @@
+package com.ghassenebenslimene.store.analytics;
+
+import com.ghassenebenslimene.store.orders.OrderPlacedEvent;
+import com.ghassenebenslimene.store.orders.OrderStatusChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Queues orders whose rollups need syncing and syncs them every
+ * {@code analytics.rollups.sync-interval-ms}, off the checkout and webhook
+ * threads. All queued orders are synced together by one job, so checkouts
+ * never wait on the shared daily rows. A batch that fails is split until the
+ * failing orders are alone; those are logged and dropped from the queue, so
+ * one bad order cannot hold back the others. Dropped orders, and orders still
+ * queued when the process stops, keep a stale marker and are picked up by the
+ * backfill.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class SalesRollupListener {
+    private final SalesRollupService salesRollupService;
+
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        pending.add(event.getOrder().getId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        pending.add(event.getOrder().getId());
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.rollups.sync-interval-ms:5000}")
+    public void syncPending() {
+        while (!pending.isEmpty()) {
+            var batch = new ArrayList<Long>(SalesRollupService.CHUNK_SIZE);
+            var iterator = pending.iterator();
+            while (iterator.hasNext() && batch.size() < SalesRollupService.CHUNK_SIZE) {
+                batch.add(iterator.next());
+                iterator.remove();
+            }
+
+            sync(batch);
+        }
+    }
+
+    private void sync(List<Long> orderIds) {
+        try {
+            salesRollupService.sync(orderIds);
+        } catch (RuntimeException e) {
+            if (orderIds.size() == 1) {
+                log.error("Could not roll up order {}; it is left for the backfill", orderIds.get(0), e);
+                return;
+            }
+            var middle = orderIds.size() / 2;
+            sync(List.copyOf(orderIds.subList(0, middle)));
+            sync(List.copyOf(orderIds.subList(middle, orderIds.size())));
+        }
+    }
+
+    @PreDestroy
+    public void syncOnShutdown() {
+        syncPending();
+    }
+}
@@ -0,0 +1,50 @@
+package com.ghassenebenslimene.store.analytics;
+
+import com.ghassenebenslimene.store.orders.PaymentStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SalesRollupRepository extends JpaRepository<SalesRollup, SalesRollupId> {
+    @Modifying
+    @Query(value = "INSERT INTO sales_rollups " +
+                   "(sales_day, status, dimension, dimension_id, order_count, unit_count, revenue_cents) " +
+                   "VALUES (:day, :status, :dimension, :dimensionId, :orders, :units, :revenueCents) " +
+                   "ON DUPLICATE KEY UPDATE order_count = order_count + :orders, " +
+                   "unit_count = unit_count + :units, revenue_cents = revenue_cents + :revenueCents",
+           nativeQuery = true)
+    void addDelta(
+        @Param("day") LocalDate day,
+        @Param("status") String status,
+        @Param("dimension") String dimension,
+        @Param("dimensionId") long dimensionId,
+        @Param("orders") long orders,
+        @Param("units") long units,
+        @Param("revenueCents") long revenueCents);
+
+    @Query("SELECT r.salesDay AS salesDay, r.dimensionId AS dimensionId, r.orderCount AS orderCount, " +
+           "r.unitCount AS unitCount, r.revenueCents AS revenueCents FROM SalesRollup r " +
+           "WHERE r.dimension = :dimension AND r.status = :status AND r.salesDay BETWEEN :from AND :to " +
+           "ORDER BY r.salesDay")
+    List<SalesTotals> findDaily(
+        @Param("dimension") SalesDimension dimension,
+        @Param("status") PaymentStatus status,
+        @Param("from") LocalDate from,
+        @Param("to") LocalDate to);
+
+    @Query("SELECT r.dimensionId AS dimensionId, SUM(r.orderCount) AS orderCount, " +
+           "SUM(r.unitCount) AS unitCount, SUM(r.revenueCents) AS revenueCents FROM SalesRollup r " +
+           "WHERE r.dimension = :dimension AND r.status = :status AND r.salesDay BETWEEN :from AND :to " +
+           "GROUP BY r.dimensionId ORDER BY SUM(r.revenueCents) DESC, r.dimensionId")
+    List<SalesTotals> findTotalsByDimensionId(
+        @Param("dimension") SalesDimension dimension,
+        @Param("status") PaymentStatus status,
+        @Param("from") LocalDate from,
+        @Param("to") LocalDate to,
+        Limit limit);
+}
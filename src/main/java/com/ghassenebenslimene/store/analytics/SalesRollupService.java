@@ -0,0 +1,169 @@
+package com.ghassenebenslimene.store.analytics;
+
+import com.ghassenebenslimene.store.common.Money;
+import com.ghassenebenslimene.store.orders.OrderItemRepository;
+import com.ghassenebenslimene.store.orders.OrderRepository;
+import com.ghassenebenslimene.store.orders.OrderRollupState;
+import com.ghassenebenslimene.store.orders.PaymentStatus;
+import com.ghassenebenslimene.store.orders.SalesLine;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps sales_rollups in step with orders. Each order records the status it
+ * is counted under (orders.rollup_status); syncing an order locks it, removes
+ * its lines from the rollups under the old status and adds them under the
+ * current one. Syncing is idempotent, so live updates and the backfill can
+ * run concurrently without counting an order twice, and the backfill also
+ * repairs any update that was missed.
+ */
+@Service
+public class SalesRollupService {
+    public static final int MAX_LIMIT = 100;
+    public static final int MAX_DAYS = 366;
+    static final int CHUNK_SIZE = 500;
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final SalesRollupRepository salesRollupRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public SalesRollupService(
+        OrderRepository orderRepository,
+        OrderItemRepository orderItemRepository,
+        SalesRollupRepository salesRollupRepository,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.salesRollupRepository = salesRollupRepository;
+        // Syncs run after the order's own transaction has committed, so they
+        // must not join it.
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Brings the rollups up to date for the given orders and returns how many
+     * of them changed.
+     */
+    public int sync(Collection<Long> orderIds) {
+        Integer synced = transactionTemplate.execute(status -> {
+            var stale = orderRepository.lockRollupStates(orderIds).stream()
+                .filter(order -> order.getRollupStatus() != order.getStatus())
+                .toList();
+            if (stale.isEmpty()) {
+                return 0;
+            }
+
+            var staleIds = stale.stream().map(OrderRollupState::getId).toList();
+            var lines = orderItemRepository.findSalesLinesByOrderIdIn(staleIds).stream()
+                .collect(Collectors.groupingBy(SalesLine::getOrderId));
+
+            var delta = new SalesDelta();
+            stale.forEach(order -> {
+                var orderLines = lines.getOrDefault(order.getId(), List.of());
+                if (order.getRollupStatus() != null) {
+                    delta.add(order, order.getRollupStatus(), orderLines, -1);
+                }
+                delta.add(order, order.getStatus(), orderLines, 1);
+            });
+            delta.forEach((key, totals) -> salesRollupRepository.addDelta(
+                key.day(),
+                key.status().name(),
+                key.dimension().name(),
+                key.dimensionId(),
+                totals[0],
+                totals[1],
+                totals[2]
+            ));
+            orderRepository.markRolledUp(staleIds);
+
+            return stale.size();
+        });
+        return synced != null ? synced : 0;
+    }
+
+    /**
+     * Rolls up every order that is not counted under its current status, in
+     * chunks of {@value #CHUNK_SIZE} orders with one transaction each, and
+     * returns how many were synced.
+     */
+    public long backfill() {
+        long total = 0;
+        var afterId = 0L;
+        while (true) {
+            var orderIds = orderRepository.findIdsWithStaleRollupAfter(afterId, Limit.of(CHUNK_SIZE));
+            if (orderIds.isEmpty()) {
+                return total;
+            }
+            total += sync(orderIds);
+            afterId = orderIds.get(orderIds.size() - 1);
+        }
+    }
+
+    /**
+     * One entry per day from {@code from} to {@code to}, days without sales
+     * included.
+     */
+    public List<DailySalesDto> getDailySales(PaymentStatus status, LocalDate from, LocalDate to) {
+        checkRange(from, to);
+
+        var totals = salesRollupRepository.findDaily(SalesDimension.TOTAL, status, from, to).stream()
+            .collect(Collectors.toMap(SalesTotals::getSalesDay, Function.identity()));
+
+        var days = new ArrayList<DailySalesDto>();
+        for (var day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            var total = totals.get(day);
+            days.add(total != null
+                ? new DailySalesDto(day, total.getOrderCount(), total.getUnitCount(), revenue(total))
+                : new DailySalesDto(day, 0, 0, Money.ZERO.toBigDecimal()));
+        }
+        return days;
+    }
+
+    /**
+     * Categories or products ordered by revenue over the range, highest first.
+     */
+    public List<SalesBreakdownDto> getBreakdown(
+        SalesDimension dimension,
+        PaymentStatus status,
+        LocalDate from,
+        LocalDate to,
+        int limit
+    ) {
+        checkRange(from, to);
+        limit = Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        return salesRollupRepository.findTotalsByDimensionId(dimension, status, from, to, Limit.of(limit)).stream()
+            .map(total -> new SalesBreakdownDto(
+                total.getDimensionId(),
+                total.getOrderCount(),
+                total.getUnitCount(),
+                revenue(total)
+            ))
+            .toList();
+    }
+
+    private static void checkRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to) || ChronoUnit.DAYS.between(from, to) >= MAX_DAYS) {
+            throw new InvalidSalesRangeException();
+        }
+    }
+
+    private static BigDecimal revenue(SalesTotals total) {
+        return Money.ofCents(total.getRevenueCents()).toBigDecimal();
+    }
+}
@@ -0,0 +1,11 @@
+package com.ghassenebenslimene.store.analytics;
+
+import java.time.LocalDate;
+
+public interface SalesTotals {
+    LocalDate getSalesDay();
+    Long getDimensionId();
+    Long getOrderCount();
+    Long getUnitCount();
+    Long getRevenueCents();
+}
@@ -1,6 +1,7 @@
 package com.ghassenebenslimene.store.auth;
 
 import com.ghassenebenslimene.store.common.SecurityRules;
+import jakarta.servlet.DispatcherType;
 import lombok.AllArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -56,6 +57,11 @@ public class SecurityConfig {
                     c.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .csrf(AbstractHttpConfigurer::disable)
             .authorizeHttpRequests(c -> {
+                    // Streamed and server-sent responses are written from an
+                    // async dispatch, which the JWT filter does not run for.
+                    // The request was authorized when it started, and the
+                    // response may already be committed by then.
+                    c.dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll();
                     featureSecurityRules.forEach(r -> r.configure(c));
                     c.anyRequest().authenticated();
                 }
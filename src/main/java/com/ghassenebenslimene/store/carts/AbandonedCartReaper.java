@@ -0,0 +1,117 @@
+package com.ghassenebenslimene.store.carts;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Deletes carts created more than {@code carts.reaper.max-age} ago. Carts are
+ * walked in (date_created, id) order in chunks of {@code carts.reaper.chunk-size},
+ * each deleted in its own short transaction, with a pause between chunks so
+ * the delete never holds many row locks at once. Deleted rows and chunk
+ * latency are published as {@code carts.reaper.deleted} and
+ * {@code carts.reaper.chunk}.
+ */
+@Component
+public class AbandonedCartReaper {
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CartReaperConfig config;
+
+    private final Counter deleted;
+    private final Counter matchedInDryRun;
+    private final Timer chunkTimer;
+
+    public AbandonedCartReaper(
+        CartRepository cartRepository,
+        CartItemRepository cartItemRepository,
+        TransactionTemplate transactionTemplate,
+        CartReaperConfig config,
+        MeterRegistry meterRegistry
+    ) {
+        this.cartRepository = cartRepository;
+        this.cartItemRepository = cartItemRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.config = config;
+        this.deleted = Counter.builder("carts.reaper.deleted")
+            .description("Abandoned carts deleted by the reaper")
+            .tag("dry_run", "false")
+            .register(meterRegistry);
+        this.matchedInDryRun = Counter.builder("carts.reaper.deleted")
+            .description("Abandoned carts deleted by the reaper")
+            .tag("dry_run", "true")
+            .register(meterRegistry);
+        this.chunkTimer = Timer.builder("carts.reaper.chunk")
+            .description("Time spent finding and deleting one chunk of carts")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(
+        initialDelayString = "${carts.reaper.interval-ms:3600000}",
+        fixedDelayString = "${carts.reaper.interval-ms:3600000}"
+    )
+    public void run() {
+        if (config.isEnabled()) {
+            reap();
+        }
+    }
+
+    /**
+     * Returns the number of carts deleted, or that would have been deleted
+     * in dry-run mode.
+     */
+    public long reap() {
+        var cutoff = LocalDate.now().minus(config.getMaxAge());
+        var chunkSize = config.getChunkSize();
+        var dryRun = config.isDryRun();
+
+        long total = 0;
+        CartAge last = null;
+        while (true) {
+            var sample = Timer.start();
+            var chunk = nextChunk(cutoff, last, chunkSize);
+            if (!chunk.isEmpty() && !dryRun) {
+                var cartIds = chunk.stream().map(CartAge::getId).toList();
+                // cart_items is cleared first: the schema cascades, but the
+                // entity mapping does not, and this keeps the work explicit.
+                transactionTemplate.executeWithoutResult(status -> {
+                    cartItemRepository.deleteByCartIdIn(cartIds);
+                    cartRepository.deleteByIdIn(cartIds);
+                });
+            }
+            sample.stop(chunkTimer);
+
+            total += chunk.size();
+            (dryRun ? matchedInDryRun : deleted).increment(chunk.size());
+            if (chunk.size() < chunkSize || !pause()) {
+                return total;
+            }
+            last = chunk.get(chunk.size() - 1);
+        }
+    }
+
+    private List<CartAge> nextChunk(LocalDate cutoff, CartAge last, int chunkSize) {
+        if (last == null) {
+            return cartRepository.findCreatedBefore(cutoff, Limit.of(chunkSize));
+        }
+        return cartRepository.findCreatedBefore(cutoff, last.getDateCreated(), last.getId(), Limit.of(chunkSize));
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(config.getPause().toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -1,13 +1,16 @@
 package com.ghassenebenslimene.store.carts;
 
+import com.ghassenebenslimene.store.common.Money;
 import com.ghassenebenslimene.store.products.Product;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -24,20 +27,39 @@ public class Cart {
     @Column(name = "date_created", insertable = false, updatable = false)
     private LocalDate dateCreated;
 
+    @Version
+    @Column(name = "version")
+    private Long version;
+
     @OneToMany(mappedBy = "cart", cascade = CascadeType.MERGE, orphanRemoval = true, fetch = FetchType.EAGER)
     private Set<CartItem> items = new LinkedHashSet<>();
 
-    public BigDecimal getTotalPrice() {
-        return items.stream()
-                .map(CartItem::getTotalPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    // Lookup by product id and the running total in cents. Built from
+    // items on first use after the cart is loaded (Hibernate fills items
+    // directly) and then kept current by the methods below and by
+    // CartItem.setQuantity, so lookups and totals cost O(1).
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Map<Long, CartItem> itemsByProduct;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private long totalCents;
+
+    public void setItems(Set<CartItem> items) {
+        this.items = items;
+        this.itemsByProduct = null;
+    }
+
+    public Money getTotalPrice() {
+        index();
+        return Money.ofCents(totalCents);
     }
 
     public CartItem getItem(Long productId) {
-        return items.stream()
-                .filter(item -> item.getProduct().getId().equals(productId))
-                .findFirst()
-                .orElse(null);
+        return index().get(productId);
     }
 
     public CartItem addItem(Product product) {
@@ -50,23 +72,67 @@ public class Cart {
             cartItem.setQuantity(1);
             cartItem.setCart(this);
             items.add(cartItem);
+            itemsByProduct.put(product.getId(), cartItem);
+            totalCents = Math.addExact(totalCents, cartItem.getTotalPrice().cents());
         }
         return cartItem;
     }
 
+    /**
+     * Sets the quantity of the product's line, adding the line if needed;
+     * a quantity of 0 removes it.
+     */
+    public void setItemQuantity(Product product, int quantity) {
+        if (quantity == 0) {
+            removeItem(product.getId());
+            return;
+        }
+
+        var cartItem = getItem(product.getId());
+        if (cartItem != null) {
+            cartItem.setQuantity(quantity);
+        } else {
+            addItem(product).setQuantity(quantity);
+        }
+    }
+
     public void removeItem(Long productId) {
-        var cartItem = getItem(productId);
+        var cartItem = index().remove(productId);
         if (cartItem != null) {
             items.remove(cartItem);
+            totalCents = Math.subtractExact(totalCents, cartItem.getTotalPrice().cents());
             cartItem.setCart(null);
         }
     }
 
     public void clear() {
         items.clear();
+        itemsByProduct = new HashMap<>();
+        totalCents = 0;
     }
 
     public boolean isEmpty() {
         return items.isEmpty();
     }
-}
\ No newline at end of file
+
+    void quantityChanged(CartItem cartItem, int previousQuantity) {
+        if (itemsByProduct != null) {
+            var delta = Math.multiplyExact(cartItem.getUnitPrice().cents(), cartItem.getQuantity() - previousQuantity);
+            totalCents = Math.addExact(totalCents, delta);
+        }
+    }
+
+    private Map<Long, CartItem> index() {
+        if (itemsByProduct == null) {
+            var index = new HashMap<Long, CartItem>(items.size() * 2);
+            long total = 0;
+            for (var item : items) {
+                index.put(item.getProduct().getId(), item);
+                total = Math.addExact(total, item.getTotalPrice().cents());
+            }
+            itemsByProduct = index;
+            totalCents = total;
+        }
+        return itemsByProduct;
+    }
+}
@@ -0,0 +1,9 @@
+package com.ghassenebenslimene.store.carts;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+public interface CartAge {
+    UUID getId();
+    LocalDate getDateCreated();
+}
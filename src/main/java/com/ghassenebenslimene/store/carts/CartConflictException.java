@@ -0,0 +1,7 @@
+package com.ghassenebenslimene.store.carts;
+
+public class CartConflictException extends RuntimeException {
+    public CartConflictException() {
+        super("Cart was modified concurrently");
+    }
+}
@@ -53,6 +53,14 @@ public class CartController {
        return cartService.updateItem(cartId, productId, request.getQuantity());
     }
 
+    @PatchMapping("/{cartId}/items")
+    public CartDto updateItems(
+        @PathVariable("cartId") UUID cartId,
+        @Valid @RequestBody UpdateCartItemsRequest request
+    ) {
+        return cartService.updateItems(cartId, request.getItems());
+    }
+
     @DeleteMapping("/{cartId}/items/{productId}")
     public ResponseEntity<?> removeItem(
         @PathVariable("cartId") UUID cartId,
@@ -75,6 +83,12 @@ public class CartController {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Cart not found."));
     }
 
+    @ExceptionHandler(CartConflictException.class)
+    public ResponseEntity<Map<String, String>> handleCartConflict() {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+            .body(Map.of("error", "Cart was modified concurrently, please retry."));
+    }
+
     @ExceptionHandler(ProductNotFoundException.class)
     public ResponseEntity<Map<String, String>> handleProductNotFound() {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Product not found."));
@@ -1,16 +1,22 @@
 package com.ghassenebenslimene.store.carts;
 
+import com.ghassenebenslimene.store.common.Money;
 import com.ghassenebenslimene.store.products.Product;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.math.BigDecimal;
-
 @Getter
 @Setter
 @Entity
-@Table(name = "cart_items")
+@Table(
+    name = "cart_items",
+    uniqueConstraints = @UniqueConstraint(
+        name = "cart_items_cart_product_unique",
+        columnNames = {"cart_id", "product_id"}
+    )
+)
 public class CartItem {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -28,7 +34,33 @@ public class CartItem {
     @Column(name = "quantity")
     private Integer quantity;
 
-    public BigDecimal getTotalPrice() {
-        return product.getPrice().multiply(BigDecimal.valueOf(quantity));
+    // Converted from the product price once per loaded line; totals are read
+    // many times per request.
+    @Transient
+    @Setter(AccessLevel.NONE)
+    private Money unitPrice;
+
+    public void setQuantity(Integer quantity) {
+        var previous = this.quantity;
+        this.quantity = quantity;
+        if (cart != null && previous != null && quantity != null) {
+            cart.quantityChanged(this, previous);
+        }
+    }
+
+    public void setProduct(Product product) {
+        this.product = product;
+        this.unitPrice = null;
+    }
+
+    public Money getUnitPrice() {
+        if (unitPrice == null) {
+            unitPrice = Money.of(product.getPrice());
+        }
+        return unitPrice;
+    }
+
+    public Money getTotalPrice() {
+        return getUnitPrice().times(quantity);
     }
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.ghassenebenslimene.store.carts;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class CartItemOperation {
+    @NotNull(message = "Product id must be provided.")
+    private Long productId;
+
+    // The new quantity of the line; 0 removes it.
+    @NotNull(message = "Quantity must be provided.")
+    @Min(value = 0, message = "Quantity must not be negative.")
+    @Max(value = 1000, message = "Quantity must be less than or equal to 1000.")
+    private Integer quantity;
+}
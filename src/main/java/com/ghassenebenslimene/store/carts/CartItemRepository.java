@@ -0,0 +1,29 @@
+package com.ghassenebenslimene.store.carts;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface CartItemRepository extends JpaRepository<CartItem, Long> {
+    // Inserts the item or bumps its quantity in one statement, relying on the
+    // cart_items_cart_product_unique key instead of loading the cart.
+    @Modifying
+    @Query(value = "INSERT INTO cart_items (cart_id, product_id, quantity) " +
+                   "VALUES (:cartId, :productId, :quantity) " +
+                   "ON DUPLICATE KEY UPDATE quantity = quantity + :quantity",
+           nativeQuery = true)
+    int upsertQuantity(
+        @Param("cartId") UUID cartId, @Param("productId") Long productId, @Param("quantity") int quantity);
+
+    @Query("SELECT ci.quantity FROM CartItem ci WHERE ci.cart.id = :cartId AND ci.product.id = :productId")
+    Optional<Integer> findQuantity(@Param("cartId") UUID cartId, @Param("productId") Long productId);
+
+    @Modifying
+    @Query("DELETE FROM CartItem ci WHERE ci.cart.id IN :cartIds")
+    int deleteByCartIdIn(@Param("cartIds") Collection<UUID> cartIds);
+}
@@ -1,14 +1,13 @@
 package com.ghassenebenslimene.store.carts;
 
+import com.ghassenebenslimene.store.common.MoneyMapper;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
-@Mapper(componentModel = "spring")
+@Mapper(componentModel = "spring", uses = MoneyMapper.class)
 public interface CartMapper {
     @Mapping(target = "items", source = "items")
-    @Mapping(target = "totalPrice", expression = "java(cart.getTotalPrice())")
     CartDto toDto(Cart cart);
 
-    @Mapping(target = "totalPrice", expression = "java(cartItem.getTotalPrice())")
     CartItemDto toDto(CartItem cartItem);
 }
@@ -0,0 +1,23 @@
+package com.ghassenebenslimene.store.carts;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.time.Period;
+
+@Configuration
+@ConfigurationProperties(prefix = "carts.reaper")
+@Data
+public class CartReaperConfig {
+    private boolean enabled = true;
+    // Carts created longer ago than this are deleted.
+    private Period maxAge = Period.ofDays(30);
+    private int chunkSize = 500;
+    // Pause between two chunks, so the reaper never holds row locks on
+    // carts/cart_items for long and leaves room for regular traffic.
+    private Duration pause = Duration.ofMillis(200);
+    // Walks and counts the carts that would be deleted without deleting them.
+    private boolean dryRun = false;
+}
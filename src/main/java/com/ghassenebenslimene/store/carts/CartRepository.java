@@ -1,10 +1,15 @@
 package com.ghassenebenslimene.store.carts;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -12,4 +17,28 @@ public interface CartRepository extends JpaRepository<Cart, UUID> {
   @EntityGraph(attributePaths = "items.product")
   @Query("SELECT c FROM Cart c WHERE c.id = :cartId")
   Optional<Cart> getCartWithItems(@Param("cartId") UUID cartId);
-}
\ No newline at end of file
+
+  @Modifying
+  @Query("UPDATE Cart c SET c.version = c.version + 1 WHERE c.id = :cartId")
+  int incrementVersion(@Param("cartId") UUID cartId);
+
+  // Keyset pages over carts_date_created_index (date_created, id).
+  @Query("SELECT c.id AS id, c.dateCreated AS dateCreated FROM Cart c " +
+         "WHERE c.dateCreated < :cutoff " +
+         "ORDER BY c.dateCreated, c.id")
+  List<CartAge> findCreatedBefore(@Param("cutoff") LocalDate cutoff, Limit limit);
+
+  @Query("SELECT c.id AS id, c.dateCreated AS dateCreated FROM Cart c " +
+         "WHERE c.dateCreated < :cutoff " +
+         "AND (c.dateCreated > :afterDate OR (c.dateCreated = :afterDate AND c.id > :afterId)) " +
+         "ORDER BY c.dateCreated, c.id")
+  List<CartAge> findCreatedBefore(
+      @Param("cutoff") LocalDate cutoff,
+      @Param("afterDate") LocalDate afterDate,
+      @Param("afterId") UUID afterId,
+      Limit limit);
+
+  @Modifying
+  @Query("DELETE FROM Cart c WHERE c.id IN :cartIds")
+  int deleteByIdIn(@Param("cartIds") Collection<UUID> cartIds);
+}
@@ -0,0 +1,20 @@
+package com.ghassenebenslimene.store.carts;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "carts.retry")
+@Data
+public class CartRetryConfig {
+    // Attempts per cart mutation, the first one included, before the client
+    // gets a 409.
+    private int maxAttempts = 5;
+    // Backoff before retry n is a random delay in [0, min(maxBackoff,
+    // initialBackoff * 2^(n-1))], so writers that collided spread out.
+    private Duration initialBackoff = Duration.ofMillis(5);
+    private Duration maxBackoff = Duration.ofMillis(100);
+}
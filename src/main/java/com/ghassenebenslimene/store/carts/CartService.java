@@ -1,89 +1,127 @@
 package com.ghassenebenslimene.store.carts;
 
+import com.ghassenebenslimene.store.products.Product;
 import com.ghassenebenslimene.store.products.ProductNotFoundException;
 import com.ghassenebenslimene.store.products.ProductRepository;
 import lombok.AllArgsConstructor;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
 public class CartService {
-    private CartRepository cartRepository;
+    public static final int MAX_BULK_ITEMS = 200;
+
+    private CartStore cartStore;
     private CartMapper cartMapper;
     private ProductRepository productRepository;
+    private CartRetryConfig retryConfig;
 
     public CartDto createCart() {
-        var cart = new Cart();
-        cartRepository.save(cart);
+        var cart = cartStore.create();
 
         return cartMapper.toDto(cart);
     }
 
     public CartItemDto addToCart(UUID cartId, Long productId) {
-        var cart = cartRepository.getCartWithItems(cartId).orElse(null);
-        if (cart == null) {
-            throw new CartNotFoundException();
-        }
-
         var product = productRepository.findById(productId).orElse(null);
         if (product == null) {
             throw new ProductNotFoundException();
         }
 
-        var cartItem = cart.addItem(product);
-
-        cartRepository.save(cart);
+        var cartItem = withRetry(() -> cartStore.addItem(cartId, product));
 
         return cartMapper.toDto(cartItem);
     }
 
     public CartDto getCart(UUID cartId) {
-        var cart = cartRepository.getCartWithItems(cartId).orElse(null);
-        if (cart == null) {
-            throw new CartNotFoundException();
-        }
-
-        return cartMapper.toDto(cart);
+        return cartStore.read(cartId, cartMapper::toDto);
     }
 
     public CartItemDto updateItem(UUID cartId, Long productId, Integer quantity) {
-        var cart = cartRepository.getCartWithItems(cartId).orElse(null);
-        if (cart == null) {
-            throw new CartNotFoundException();
-        }
+        return withRetry(() -> cartStore.update(cartId, cart -> {
+            var cartItem = cart.getItem(productId);
+            if (cartItem == null) {
+                throw new ProductNotFoundException();
+            }
+
+            cartItem.setQuantity(quantity);
+
+            return cartMapper.toDto(cartItem);
+        }));
+    }
 
-        var cartItem = cart.getItem(productId);
-        if (cartItem == null) {
+    /**
+     * Applies the operations in order (the last one wins for a repeated
+     * product) in a single cart update. All products are resolved with one
+     * query before the cart is touched.
+     */
+    public CartDto updateItems(UUID cartId, List<CartItemOperation> operations) {
+        var productIds = operations.stream().map(CartItemOperation::getProductId).collect(Collectors.toSet());
+        var products = productRepository.findByIdIn(productIds).stream()
+            .collect(Collectors.toMap(Product::getId, Function.identity()));
+        if (products.size() < productIds.size()) {
             throw new ProductNotFoundException();
         }
 
-        cartItem.setQuantity(quantity);
-        cartRepository.save(cart);
+        return withRetry(() -> cartStore.update(cartId, cart -> {
+            operations.forEach(operation ->
+                cart.setItemQuantity(products.get(operation.getProductId()), operation.getQuantity()));
 
-        return cartMapper.toDto(cartItem);
+            return cartMapper.toDto(cart);
+        }));
     }
 
     public void removeItem(UUID cartId, Long productId) {
-        var cart = cartRepository.getCartWithItems(cartId).orElse(null);
-        if (cart == null) {
-           throw new CartNotFoundException();
-        }
+        withRetry(() -> cartStore.update(cartId, cart -> {
+            cart.removeItem(productId);
+            return null;
+        }));
+    }
 
-        cart.removeItem(productId);
+    public void clearCart(UUID cartId) {
+        withRetry(() -> cartStore.update(cartId, cart -> {
+            cart.clear();
+            return null;
+        }));
+    }
 
-        cartRepository.save(cart);
+    public void flushCart(UUID cartId) {
+        cartStore.flush(cartId);
     }
 
-    public void clearCart(UUID cartId) {
-        var cart = cartRepository.getCartWithItems(cartId).orElse(null);
-        if (cart == null) {
-            throw new CartNotFoundException();
+    // Each attempt runs in its own transaction: a version conflict or a lock
+    // timeout rolls it back, and the next attempt re-reads the cart.
+    private <T> T withRetry(Supplier<T> mutation) {
+        for (var attempt = 1; ; attempt++) {
+            try {
+                return mutation.get();
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= retryConfig.getMaxAttempts()) {
+                    throw new CartConflictException();
+                }
+                backOff(attempt);
+            }
         }
+    }
 
-        cart.clear();
-
-        cartRepository.save(cart);
+    private void backOff(int attempt) {
+        var ceiling = Math.min(
+            retryConfig.getMaxBackoff().toMillis(),
+            retryConfig.getInitialBackoff().toMillis() << Math.min(attempt - 1, 20)
+        );
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CartConflictException();
+        }
     }
 }
@@ -0,0 +1,32 @@
+package com.ghassenebenslimene.store.carts;
+
+import com.ghassenebenslimene.store.products.Product;
+
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Storage for cart aggregates. Selected with {@code carts.store}:
+ * {@code database} (default) reads and writes MySQL on every call,
+ * {@code write-behind} keeps active carts in memory and persists them in the
+ * background. Readers and mutations get exclusive access to the cart while
+ * they run; they throw {@link CartNotFoundException} for unknown carts.
+ */
+public interface CartStore {
+    Cart create();
+
+    <T> T read(UUID cartId, Function<Cart, T> reader);
+
+    <T> T update(UUID cartId, Function<Cart, T> mutation);
+
+    /**
+     * Adds one unit of the product and returns a copy of the resulting line.
+     */
+    CartItem addItem(UUID cartId, Product product);
+
+    /**
+     * Makes pending changes to the cart durable before it is read from the
+     * database, e.g. at checkout.
+     */
+    void flush(UUID cartId);
+}
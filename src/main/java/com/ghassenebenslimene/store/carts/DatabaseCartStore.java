@@ -0,0 +1,83 @@
+package com.ghassenebenslimene.store.carts;
+
+import com.ghassenebenslimene.store.products.Product;
+import com.ghassenebenslimene.store.products.ProductNotFoundException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+import java.util.function.Function;
+
+@AllArgsConstructor
+@Component
+@ConditionalOnProperty(name = "carts.store", havingValue = "database", matchIfMissing = true)
+public class DatabaseCartStore implements CartStore {
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final EntityManager entityManager;
+
+    @Override
+    public Cart create() {
+        return cartRepository.save(new Cart());
+    }
+
+    @Override
+    public <T> T read(UUID cartId, Function<Cart, T> reader) {
+        var cart = cartRepository.getCartWithItems(cartId).orElse(null);
+        if (cart == null) {
+            throw new CartNotFoundException();
+        }
+
+        return reader.apply(cart);
+    }
+
+    @Transactional
+    @Override
+    public <T> T update(UUID cartId, Function<Cart, T> mutation) {
+        var cart = cartRepository.getCartWithItems(cartId).orElse(null);
+        if (cart == null) {
+            throw new CartNotFoundException();
+        }
+        // Bumps the version on commit even when only an item changed, so two
+        // read-modify-write updates of the same cart can never both commit.
+        entityManager.lock(cart, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+
+        var result = mutation.apply(cart);
+        cartRepository.save(cart);
+
+        return result;
+    }
+
+    @Transactional
+    @Override
+    public CartItem addItem(UUID cartId, Product product) {
+        // The cart is never loaded. Bumping its version first makes a
+        // concurrent read-modify-write update of the cart fail its version
+        // check, and finds missing carts without relying on the foreign key.
+        if (cartRepository.incrementVersion(cartId) == 0) {
+            throw new CartNotFoundException();
+        }
+        try {
+            cartItemRepository.upsertQuantity(cartId, product.getId(), 1);
+        } catch (DataIntegrityViolationException e) {
+            // The cart row is locked by now, so only the product can be gone.
+            throw new ProductNotFoundException();
+        }
+
+        var cartItem = new CartItem();
+        cartItem.setProduct(product);
+        cartItem.setQuantity(
+            cartItemRepository.findQuantity(cartId, product.getId()).orElseThrow(CartNotFoundException::new));
+
+        return cartItem;
+    }
+
+    @Override
+    public void flush(UUID cartId) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.ghassenebenslimene.store.carts;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class UpdateCartItemsRequest {
+    @NotEmpty(message = "Items are required.")
+    @Size(max = CartService.MAX_BULK_ITEMS, message = "At most {max} items can be updated at once.")
+    private List<@Valid CartItemOperation> items;
+}
@@ -0,0 +1,20 @@
+package com.ghassenebenslimene.store.carts;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "carts.write-behind")
+@Data
+public class WriteBehindCartConfig {
+    // Carts kept in memory; the least recently used are written out and
+    // dropped beyond this.
+    private int maxCarts = 100_000;
+    private Duration idleTimeout = Duration.ofMinutes(30);
+    // Flushing starts early once this many carts are waiting, which bounds
+    // how many carts a crash can lose on top of the flush interval.
+    private int maxDirtyCarts = 1_000;
+}
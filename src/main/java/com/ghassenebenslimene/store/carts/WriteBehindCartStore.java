@@ -0,0 +1,309 @@
+package com.ghassenebenslimene.store.carts;
+
+import com.ghassenebenslimene.store.products.Product;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Keeps active carts in a bounded in-memory map and serves reads and writes
+ * from it. Changed carts are marked dirty and written to carts/cart_items
+ * every {@code carts.write-behind.flush-interval-ms}, each in its own
+ * transaction, so many edits to a cart between two flushes cost a single
+ * write and a cart that can no longer be written is dropped without holding
+ * back the others. Carts are also written when checkout asks for them and on
+ * shutdown; dirty carts that are evicted are handed to the flusher, which
+ * writes them early. New carts are inserted immediately so their id always
+ * exists. Dropped and failed writes are counted as
+ * {@code carts.write-behind.dropped} and {@code carts.write-behind.failed}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "carts.store", havingValue = "write-behind")
+public class WriteBehindCartStore implements CartStore {
+    private final CartRepository cartRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskScheduler taskScheduler;
+    private final WriteBehindCartConfig config;
+    private final Counter dropped;
+    private final Counter failed;
+
+    private final Cache<UUID, Cart> carts;
+    private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+    // Carts whose changes may not be committed yet although they are no
+    // longer dirty in the cache: evicted while dirty, or being written. Loads
+    // take them from here instead of reading an older row.
+    private final Map<UUID, Unwritten> unwritten = new ConcurrentHashMap<>();
+    private final AtomicBoolean earlyFlushPending = new AtomicBoolean();
+    private final Object flushLock = new Object();
+
+    public WriteBehindCartStore(
+        CartRepository cartRepository,
+        EntityManager entityManager,
+        TransactionTemplate transactionTemplate,
+        TaskScheduler taskScheduler,
+        WriteBehindCartConfig config,
+        MeterRegistry meterRegistry
+    ) {
+        this.cartRepository = cartRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.taskScheduler = taskScheduler;
+        this.config = config;
+        this.dropped = Counter.builder("carts.write-behind.dropped")
+            .description("Carts whose unwritten changes were dropped because the stored cart was deleted or changed")
+            .register(meterRegistry);
+        this.failed = Counter.builder("carts.write-behind.failed")
+            .description("Cart writes that failed and will be retried")
+            .register(meterRegistry);
+        this.carts = Caffeine.newBuilder()
+            .maximumSize(config.getMaxCarts())
+            .expireAfterAccess(config.getIdleTimeout())
+            // Runs while the entry is being removed, so the cart cannot be
+            // reloaded from the database before it is handed over. No
+            // database work happens here: the flusher writes the cart.
+            .evictionListener((UUID cartId, Cart cart, RemovalCause cause) -> {
+                if (cartId != null && cart != null && dirty.remove(cartId)) {
+                    unwritten.put(cartId, new Unwritten(cart));
+                    scheduleFlush();
+                }
+            })
+            .build();
+    }
+
+    @Override
+    public Cart create() {
+        var cart = cartRepository.save(new Cart());
+        carts.put(cart.getId(), detached(cart));
+        return cart;
+    }
+
+    @Override
+    public <T> T read(UUID cartId, Function<Cart, T> reader) {
+        var cart = carts.get(cartId, this::load);
+        if (cart == null) {
+            throw new CartNotFoundException();
+        }
+        synchronized (cart) {
+            return reader.apply(cart);
+        }
+    }
+
+    @Override
+    public <T> T update(UUID cartId, Function<Cart, T> mutation) {
+        // The cart is mutated and marked dirty while its entry is being
+        // computed, so it cannot be evicted in between: an eviction either
+        // comes first, and the cart is loaded again, or sees the dirty flag.
+        var result = new AtomicReference<T>();
+        var cart = carts.asMap().compute(cartId, (id, cached) -> {
+            var current = cached != null ? cached : load(id);
+            if (current == null) {
+                return null;
+            }
+            synchronized (current) {
+                result.set(mutation.apply(current));
+            }
+            dirty.add(id);
+            return current;
+        });
+        if (cart == null) {
+            throw new CartNotFoundException();
+        }
+
+        if (dirty.size() >= config.getMaxDirtyCarts()) {
+            scheduleFlush();
+        }
+        return result.get();
+    }
+    @Override
+    public CartItem addItem(UUID cartId, Product product) {
+        return update(cartId, cart -> {
+            var item = cart.addItem(product);
+            var copy = new CartItem();
+            copy.setProduct(item.getProduct());
+            copy.setQuantity(item.getQuantity());
+            return copy;
+        });
+    }
+
+    @Override
+    public void flush(UUID cartId) {
+        // Under the flush lock, so a write of this cart that a running flush
+        // has already started is committed before checkout reads the cart.
+        synchronized (flushLock) {
+            take(cartId);
+            var pending = unwritten.get(cartId);
+            if (pending != null) {
+                write(cartId, pending);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${carts.write-behind.flush-interval-ms:1000}")
+    public void flushDirtyCarts() {
+        earlyFlushPending.set(false);
+
+        synchronized (flushLock) {
+            dirty.forEach(this::take);
+
+            RuntimeException failure = null;
+            for (var entry : unwritten.entrySet()) {
+                try {
+                    write(entry.getKey(), entry.getValue());
+                } catch (RuntimeException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushDirtyCarts();
+    }
+
+    // Returns null if the cart does not exist.
+    private Cart load(UUID cartId) {
+        var pending = unwritten.get(cartId);
+        if (pending != null) {
+            return pending.cart;
+        }
+
+        return transactionTemplate.execute(status -> {
+            var loaded = cartRepository.getCartWithItems(cartId).orElse(null);
+            if (loaded != null) {
+                loaded.getItems().forEach(entityManager::detach);
+                entityManager.detach(loaded);
+                loaded = detached(loaded);
+            }
+            return loaded;
+        });
+    }
+
+    // The cart outlives the persistence context it came from. Its items are
+    // moved to a plain set: a Hibernate collection bound to a closed session
+    // is not reliably copied on merge, which would lose removed lines.
+    private static Cart detached(Cart cart) {
+        cart.setItems(new LinkedHashSet<>(cart.getItems()));
+        return cart;
+    }
+
+    private void scheduleFlush() {
+        if (earlyFlushPending.compareAndSet(false, true)) {
+            taskScheduler.schedule(this::flushDirtyCarts, Instant.now());
+        }
+    }
+
+    // Moves a dirty cart to the unwritten ones, clearing its flag atomically
+    // with respect to eviction. An expired cart has been handed over by the
+    // eviction listener before the compute sees it as absent, so a flag left
+    // without a cached cart belongs to nothing and is just cleared.
+    private void take(UUID cartId) {
+        carts.asMap().compute(cartId, (id, cart) -> {
+            if (dirty.remove(id) && cart != null) {
+                unwritten.put(id, new Unwritten(cart));
+            }
+            return cart;
+        });
+    }
+
+    // A cart that fails to be written stays unwritten, and the next flush
+    // retries it. One that is stale is dropped, from the cache as well, so
+    // the next read goes to the database. Only the hand-over that was
+    // written is removed: a cart changed and handed over again meanwhile
+    // stays for the next flush.
+    private void write(UUID cartId, Unwritten pending) {
+        var cart = pending.cart;
+        boolean written;
+        try {
+            written = persist(cart);
+        } catch (RuntimeException e) {
+            failed.increment();
+            throw e;
+        }
+
+        unwritten.remove(cartId, pending);
+        if (!written) {
+            carts.asMap().computeIfPresent(cartId, (id, cached) -> {
+                if (cached != cart) {
+                    return cached;
+                }
+                dirty.remove(id);
+                return null;
+            });
+            dropped.increment();
+            log.warn("Dropped unwritten changes to cart {}: it was deleted or changed outside this store", cartId);
+        }
+    }
+
+    // Each cart is written in its own transaction, so a cart that cannot be
+    // written never holds back the others. Callers hold the flush lock, so
+    // writes are serialised: a cart must not be merged again before the
+    // transaction that inserted its new lines has committed. Returns false if the stored cart was deleted or
+    // changed behind this store's back, e.g. by the abandoned cart reaper;
+    // the in-memory copy is then stale and would fail on every retry.
+    private boolean persist(Cart cart) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                synchronized (cart) {
+                    var managed = cartRepository.save(cart);
+                    // Give new in-memory lines the ids they were inserted with,
+                    // so the next flush updates them instead of inserting again.
+                    managed.getItems().forEach(item -> {
+                        var line = cart.getItem(item.getProduct().getId());
+                        if (line != null) {
+                            line.setId(item.getId());
+                        }
+                    });
+
+                    // The version is bumped on flush; the in-memory cart
+                    // takes it over so the next merge passes the version check.
+                    cartRepository.flush();
+                    cart.setVersion(managed.getVersion());
+                }
+            });
+            return true;
+        } catch (OptimisticLockingFailureException e) {
+            return false;
+        }
+    }
+
+    // One hand-over of a cart to the flusher. Compared by identity, so two
+    // hand-overs of the same cart are told apart.
+    private static final class Unwritten {
+        private final Cart cart;
+
+        private Unwritten(Cart cart) {
+            this.cart = cart;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.ghassenebenslimene.store.common;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException() {
+        super("Invalid cursor");
+    }
+}
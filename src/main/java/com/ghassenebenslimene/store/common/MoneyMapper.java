@@ -0,0 +1,14 @@
+package com.ghassenebenslimene.store.common;
+
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+// Lets MapStruct mappers (uses = MoneyMapper.class) write Money into the
+// BigDecimal fields of response DTOs.
+@Component
+public class MoneyMapper {
+    public BigDecimal toBigDecimal(Money money) {
+        return money != null ? money.toBigDecimal() : null;
+    }
+}
@@ -0,0 +1,7 @@
+package com.ghassenebenslimene.store.inventory;
+
+public class InsufficientStockException extends RuntimeException {
+    public InsufficientStockException(Long productId) {
+        super("Insufficient stock for product " + productId);
+    }
+}
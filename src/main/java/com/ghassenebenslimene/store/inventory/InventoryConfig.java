@@ -0,0 +1,15 @@
+package com.ghassenebenslimene.store.inventory;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "inventory")
+@Data
+public class InventoryConfig {
+    private Duration reservationTtl = Duration.ofMinutes(30);
+    private int sweepBatchSize = 500;
+}
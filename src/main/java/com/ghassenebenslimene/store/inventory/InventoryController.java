@@ -0,0 +1,36 @@
+package com.ghassenebenslimene.store.inventory;
+
+import com.ghassenebenslimene.store.products.ProductRepository;
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@AllArgsConstructor
+@RestController
+@RequestMapping("/inventory")
+public class InventoryController {
+    private final ProductStockRepository productStockRepository;
+    private final ProductRepository productRepository;
+
+    @GetMapping("/{productId}")
+    public ResponseEntity<StockDto> getStock(@PathVariable Long productId) {
+        return productStockRepository.findById(productId)
+            .map(stock -> ResponseEntity.ok(new StockDto(stock.getProductId(), stock.getQuantity())))
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PutMapping("/{productId}")
+    public ResponseEntity<StockDto> updateStock(
+        @PathVariable Long productId,
+        @Valid @RequestBody UpdateStockRequest request
+    ) {
+        if (!productRepository.existsById(productId)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        productStockRepository.save(new ProductStock(productId, request.getQuantity()));
+
+        return ResponseEntity.ok(new StockDto(productId, request.getQuantity()));
+    }
+}
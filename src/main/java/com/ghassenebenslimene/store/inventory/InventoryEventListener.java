@@ -0,0 +1,42 @@
+package com.ghassenebenslimene.store.inventory;
+
+import com.ghassenebenslimene.store.orders.OrderStatusChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+
+@RequiredArgsConstructor
+@Component
+public class InventoryEventListener {
+    private final InventoryService inventoryService;
+    private final StockReservationRepository stockReservationRepository;
+    private final InventoryConfig inventoryConfig;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        var orderId = event.getOrder().getId();
+        switch (event.getOrder().getStatus()) {
+            case PAID -> inventoryService.confirm(orderId);
+            case FAILED, CANCELED -> inventoryService.release(orderId);
+            default -> {
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.sweep-interval-ms:60000}")
+    public void releaseExpiredReservations() {
+        var batchSize = inventoryConfig.getSweepBatchSize();
+        var now = Instant.now();
+        while (true) {
+            var expired = stockReservationRepository.findByExpiresAtBeforeOrderByExpiresAtAsc(now, Limit.of(batchSize));
+            expired.forEach(inventoryService::releaseReservation);
+            if (expired.size() < batchSize) {
+                return;
+            }
+        }
+    }
+}
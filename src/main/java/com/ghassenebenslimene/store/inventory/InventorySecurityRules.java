@@ -0,0 +1,15 @@
+package com.ghassenebenslimene.store.inventory;
+
+import com.ghassenebenslimene.store.common.SecurityRules;
+import com.ghassenebenslimene.store.users.Role;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AuthorizeHttpRequestsConfigurer;
+import org.springframework.stereotype.Component;
+
+@Component
+public class InventorySecurityRules implements SecurityRules {
+    @Override
+    public void configure(AuthorizeHttpRequestsConfigurer<HttpSecurity>.AuthorizationManagerRequestMatcherRegistry registry) {
+        registry.requestMatchers("/inventory/**").hasRole(Role.ADMIN.name());
+    }
+}
@@ -0,0 +1,119 @@
+package com.ghassenebenslimene.store.inventory;
+
+import com.ghassenebenslimene.store.orders.Order;
+import com.ghassenebenslimene.store.orders.OrderItemRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class InventoryService {
+    private final ProductStockRepository productStockRepository;
+    private final StockReservationRepository stockReservationRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final InventoryConfig inventoryConfig;
+    private final Counter oversold;
+
+    public InventoryService(
+        ProductStockRepository productStockRepository,
+        StockReservationRepository stockReservationRepository,
+        OrderItemRepository orderItemRepository,
+        InventoryConfig inventoryConfig,
+        MeterRegistry meterRegistry
+    ) {
+        this.productStockRepository = productStockRepository;
+        this.stockReservationRepository = stockReservationRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.inventoryConfig = inventoryConfig;
+        this.oversold = Counter.builder("inventory.oversold")
+            .description("Units sold by paid orders that were no longer in stock")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Takes stock for every tracked item of the order and records a
+     * reservation that expires unless the order is paid. Joins the caller's
+     * transaction, so the decrements commit or roll back together with the
+     * order and a checkout never holds more than one connection.
+     */
+    @Transactional
+    public void reserve(Order order) {
+        // Sorted by product id so concurrent multi-item checkouts lock stock
+        // rows in the same order and cannot deadlock.
+        var quantities = new TreeMap<Long, Integer>();
+        order.getItems().forEach(item ->
+            quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum));
+
+        var tracked = productStockRepository.findAllById(quantities.keySet()).stream()
+            .map(ProductStock::getProductId)
+            .collect(Collectors.toSet());
+        quantities.keySet().retainAll(tracked);
+        if (quantities.isEmpty()) {
+            return;
+        }
+
+        // Insert reservations before decrementing, so each stock row is held
+        // only from its update to the commit right after.
+        var expiresAt = Instant.now().plus(inventoryConfig.getReservationTtl());
+        quantities.forEach((productId, quantity) ->
+            stockReservationRepository.save(new StockReservation(order.getId(), productId, quantity, expiresAt)));
+
+        quantities.forEach((productId, quantity) -> {
+            if (productStockRepository.take(productId, quantity) == 0) {
+                throw new InsufficientStockException(productId);
+            }
+        });
+    }
+
+    /**
+     * Returns the reserved stock of an order that will not be paid.
+     */
+    @Transactional
+    public void release(Long orderId) {
+        stockReservationRepository.findByOrderId(orderId).forEach(this::releaseReservation);
+    }
+
+    /**
+     * Makes the stock taken for a paid order permanent. Reservations that
+     * expired and were released in the meantime are taken again; a payment
+     * cannot be refused at this point, so a shortfall is not an error. It is
+     * logged and counted in {@code inventory.oversold} instead.
+     */
+    @Transactional
+    public void confirm(Long orderId) {
+        var reservations = stockReservationRepository.findByOrderId(orderId);
+        if (reservations.isEmpty()) {
+            orderItemRepository.findSalesByOrderId(orderId)
+                .forEach(sale -> takeSold(orderId, sale.getProductId(), sale.getQuantity()));
+            return;
+        }
+
+        reservations.forEach(reservation -> {
+            if (stockReservationRepository.deleteReservation(reservation.getId()) == 0) {
+                takeSold(orderId, reservation.getProductId(), reservation.getQuantity());
+            }
+        });
+    }
+
+    // Untracked products have no stock row and are never oversold.
+    private void takeSold(Long orderId, Long productId, int quantity) {
+        if (productStockRepository.take(productId, quantity) == 0 && productStockRepository.existsById(productId)) {
+            oversold.increment(quantity);
+            log.warn("Paid order {} oversold product {}: {} units were no longer in stock", orderId, productId, quantity);
+        }
+    }
+
+    @Transactional
+    public void releaseReservation(StockReservation reservation) {
+        if (stockReservationRepository.deleteReservation(reservation.getId()) == 1) {
+            productStockRepository.restore(reservation.getProductId(), reservation.getQuantity());
+        }
+    }
+}
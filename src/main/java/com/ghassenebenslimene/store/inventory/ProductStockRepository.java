@@ -0,0 +1,19 @@
+package com.ghassenebenslimene.store.inventory;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ProductStockRepository extends JpaRepository<ProductStock, Long> {
+    // Conditional decrement: the check and the update are a single statement,
+    // so concurrent checkouts cannot both take the last unit.
+    @Modifying
+    @Query("UPDATE ProductStock s SET s.quantity = s.quantity - :quantity " +
+           "WHERE s.productId = :productId AND s.quantity >= :quantity")
+    int take(@Param("productId") Long productId, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE ProductStock s SET s.quantity = s.quantity + :quantity WHERE s.productId = :productId")
+    int restore(@Param("productId") Long productId, @Param("quantity") int quantity);
+}
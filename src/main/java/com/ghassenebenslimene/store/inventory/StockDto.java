@@ -0,0 +1,11 @@
+package com.ghassenebenslimene.store.inventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@AllArgsConstructor
+@Data
+public class StockDto {
+    private Long productId;
+    private Integer quantity;
+}
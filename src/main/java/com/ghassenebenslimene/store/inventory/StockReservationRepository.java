@@ -0,0 +1,22 @@
+package com.ghassenebenslimene.store.inventory;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+    List<StockReservation> findByOrderId(Long orderId);
+
+    List<StockReservation> findByExpiresAtBeforeOrderByExpiresAtAsc(Instant now, Limit limit);
+
+    // Returns 1 only to the caller that actually removed the row, so a
+    // reservation is restored to stock at most once.
+    @Modifying
+    @Query("DELETE FROM StockReservation r WHERE r.id = :id")
+    int deleteReservation(@Param("id") Long id);
+}
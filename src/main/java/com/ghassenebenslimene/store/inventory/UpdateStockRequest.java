@@ -0,0 +1,12 @@
+package com.ghassenebenslimene.store.inventory;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class UpdateStockRequest {
+    @NotNull(message = "Quantity is required.")
+    @Min(value = 0, message = "Quantity must be zero or greater.")
+    private Integer quantity;
+}
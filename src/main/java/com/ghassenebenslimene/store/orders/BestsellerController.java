@@ -0,0 +1,24 @@
+package com.ghassenebenslimene.store.orders;
+
+import lombok.AllArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@AllArgsConstructor
+@RestController
+@RequestMapping("/products/bestsellers")
+public class BestsellerController {
+    private final BestsellerIndex bestsellerIndex;
+
+    @GetMapping
+    public List<BestsellerDto> getBestsellers(
+        @RequestParam(name = "categoryId", required = false) Byte categoryId,
+        @RequestParam(name = "limit", defaultValue = "10") int limit
+    ) {
+        return bestsellerIndex.getBestsellers(categoryId, limit);
+    }
+}
@@ -0,0 +1,20 @@
+package com.ghassenebenslimene.store.orders;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@AllArgsConstructor
+@Data
+public class BestsellerDto {
+    private Long productId;
+    private String name;
+    private BigDecimal price;
+    private Byte categoryId;
+    // Bounds on the units sold, from the Space-Saving sketch: the true count
+    // lies between them, and they are equal unless the sketch had to drop
+    // less popular products to make room.
+    private long minUnitsSold;
+    private long maxUnitsSold;
+}
@@ -0,0 +1,97 @@
+package com.ghassenebenslimene.store.orders;
+
+import com.ghassenebenslimene.store.products.ProductService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bestselling products, overall and per category, kept in Space-Saving
+ * sketches that are fed as orders are paid. Rankings are read from memory
+ * instead of aggregating order_items; the sketches are rebuilt from paid
+ * order items once at startup. Counts are estimates, so each bestseller
+ * carries the lower and upper bound of its units sold.
+ */
+@RequiredArgsConstructor
+@Component
+public class BestsellerIndex {
+    public static final int MAX_LIMIT = 50;
+    private static final int CAPACITY = 1000;
+    private static final int CATEGORY_CAPACITY = 200;
+
+    private final OrderItemRepository orderItemRepository;
+    private final ProductService productService;
+
+    private final SpaceSavingSketch overall = new SpaceSavingSketch(CAPACITY);
+    private final Map<Byte, SpaceSavingSketch> byCategory = new HashMap<>();
+
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        synchronized (this) {
+            overall.clear();
+            byCategory.clear();
+        }
+        try (var sales = orderItemRepository.streamSalesByOrderStatus(PaymentStatus.PAID)) {
+            sales.forEach(this::record);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        if (event.getOrder().getStatus() == PaymentStatus.PAID && event.getPreviousStatus() != PaymentStatus.PAID) {
+            orderItemRepository.findSalesByOrderId(event.getOrder().getId()).forEach(this::record);
+        }
+    }
+
+    public List<BestsellerDto> getBestsellers(Byte categoryId, int limit) {
+        limit = Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        List<SpaceSavingSketch.Counter> top;
+        synchronized (this) {
+            var sketch = categoryId != null ? byCategory.get(categoryId) : overall;
+            top = sketch != null ? sketch.top(limit) : List.of();
+        }
+        if (top.isEmpty()) {
+            return List.of();
+        }
+
+        // Deleted products may still be ranked; they are left out.
+        var products = productService.getProductsByIds(top.stream().map(SpaceSavingSketch.Counter::item).toList())
+            .getItems().stream()
+            .collect(Collectors.toMap(product -> product.getId(), Function.identity()));
+
+        return top.stream()
+            .filter(counter -> products.containsKey(counter.item()))
+            .map(counter -> {
+                var product = products.get(counter.item());
+                return new BestsellerDto(
+                    product.getId(),
+                    product.getName(),
+                    product.getPrice(),
+                    product.getCategoryId(),
+                    counter.count() - counter.error(),
+                    counter.count()
+                );
+            })
+            .toList();
+    }
+
+    synchronized void record(ProductSale sale) {
+        overall.add(sale.getProductId(), sale.getQuantity());
+        if (sale.getCategoryId() != null) {
+            byCategory
+                .computeIfAbsent(sale.getCategoryId(), categoryId -> new SpaceSavingSketch(CATEGORY_CAPACITY))
+                .add(sale.getProductId(), sale.getQuantity());
+        }
+    }
+}
@@ -1,13 +1,14 @@
 package com.ghassenebenslimene.store.orders;
 
 import com.ghassenebenslimene.store.carts.Cart;
+import com.ghassenebenslimene.store.common.Money;
 import com.ghassenebenslimene.store.users.User;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
@@ -29,11 +30,24 @@ public class Order {
     @Enumerated(EnumType.STRING)
     private PaymentStatus status;
 
-    @Column(name = "created_at", insertable = false, updatable = false)
+    // Set in Java rather than by the column default, so the order and its
+    // read model carry the creation time as soon as it is saved.
+    @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
+    // Maintained by the sales rollups with bulk updates only, so saving an
+    // order loaded before a rollup never overwrites it.
+    @Column(name = "rollup_status", insertable = false, updatable = false)
+    @Enumerated(EnumType.STRING)
+    private PaymentStatus rollupStatus;
+
+    // Recorded by checkout with a bulk update once the payment session
+    // exists, so a webhook saving the order at the same time cannot clear it.
+    @Column(name = "payment_session_id", insertable = false, updatable = false)
+    private String paymentSessionId;
+
     @Column(name = "total_price")
-    private BigDecimal totalPrice;
+    private Money totalPrice;
 
     @OneToMany(mappedBy = "order", cascade = {CascadeType.PERSIST, CascadeType.REMOVE})
     private Set<OrderItem> items = new LinkedHashSet<>();
@@ -52,6 +66,14 @@ public class Order {
         return order;
     }
 
+    @PrePersist
+    void onCreate() {
+        if (createdAt == null) {
+            // created_at is DATETIME without fractional seconds.
+            createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        }
+    }
+
     public boolean isPlacedBy(User customer) {
         return this.customer.equals(customer);
     }
@@ -2,12 +2,13 @@ package com.ghassenebenslimene.store.orders;
 
 import com.ghassenebenslimene.store.common.ErrorDto;
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @AllArgsConstructor
 @RestController
@@ -16,13 +17,29 @@ public class OrderController {
     private final OrderService orderService;
 
     @GetMapping
-    public List<OrderDto> getAllOrders() {
-        return orderService.getAllOrders();
+    public OrderPageDto getOrders(
+        @RequestParam(name = "cursor", required = false) String cursor,
+        @RequestParam(name = "limit", defaultValue = "20") int limit
+    ) {
+        return orderService.getOrders(cursor, limit);
+    }
+
+    // Served as stored: the body is the rendered OrderDto.
+    @GetMapping(value = "/{orderId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public String getOrder(@PathVariable("orderId") Long orderId) {
+        return orderService.getOrderJson(orderId);
+    }
+
+    @GetMapping(value = "/{orderId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStatus(@PathVariable("orderId") Long orderId) {
+        return orderService.streamStatus(orderId);
     }
 
-    @GetMapping("/{orderId}")
-    public OrderDto getOrder(@PathVariable("orderId") Long orderId) {
-        return orderService.getOrder(orderId);
+    @ExceptionHandler(TooManyOrderStreamsException.class)
+    public ResponseEntity<Void> handleTooManyStreams() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .build();
     }
 
     @ExceptionHandler(OrderNotFoundException.class)
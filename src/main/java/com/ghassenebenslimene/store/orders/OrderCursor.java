@@ -0,0 +1,34 @@
+package com.ghassenebenslimene.store.orders;
+
+import com.ghassenebenslimene.store.common.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for the order history: the creation time and id of
+ * the last order of the previous page, base64url encoded.
+ */
+public record OrderCursor(LocalDateTime createdAt, long id) {
+    public String encode() {
+        var value = createdAt + "," + id;
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrderCursor decode(String cursor) {
+        try {
+            var value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var parts = value.split(",", -1);
+            if (parts.length != 2) {
+                throw new InvalidCursorException();
+            }
+            return new OrderCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException();
+        }
+    }
+}
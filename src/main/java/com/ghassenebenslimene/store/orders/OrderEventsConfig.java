@@ -0,0 +1,17 @@
+package com.ghassenebenslimene.store.orders;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "orders.events")
+@Data
+public class OrderEventsConfig {
+    // Open status streams across all orders; further requests get 503.
+    private int maxStreams = 10_000;
+    // A stream is closed after this long; EventSource clients reconnect.
+    private Duration timeout = Duration.ofMinutes(5);
+}
@@ -0,0 +1,70 @@
+package com.ghassenebenslimene.store.orders;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes export rows as RFC 4180 CSV, quoting fields that contain a comma,
+ * a double quote or a line break. Free-text fields that a spreadsheet would
+ * read as a formula are prefixed with a single quote; numbers are written as
+ * they are, so negative amounts stay numeric.
+ */
+class OrderExportCsv {
+    static final String HEADER = "orderId,createdAt,status,customerId,customerEmail,orderTotal," +
+                                 "itemId,productId,productName,quantity,unitPrice,lineTotal";
+
+    private final Writer writer;
+
+    OrderExportCsv(Writer writer) {
+        this.writer = writer;
+    }
+
+    void writeHeader() throws IOException {
+        writer.write(HEADER);
+        writer.write("\r\n");
+    }
+
+    void write(OrderExportRowDto row) throws IOException {
+        writeField(row.getOrderId(), true);
+        writeField(row.getCreatedAt(), true);
+        writeField(row.getStatus(), true);
+        writeField(row.getCustomerId(), true);
+        writeField(neutralised(row.getCustomerEmail()), true);
+        writeField(row.getOrderTotal() != null ? row.getOrderTotal().toPlainString() : null, true);
+        writeField(row.getItemId(), true);
+        writeField(row.getProductId(), true);
+        writeField(neutralised(row.getProductName()), true);
+        writeField(row.getQuantity(), true);
+        writeField(row.getUnitPrice() != null ? row.getUnitPrice().toPlainString() : null, true);
+        writeField(row.getLineTotal() != null ? row.getLineTotal().toPlainString() : null, false);
+        writer.write("\r\n");
+    }
+
+    // Product names and emails are chosen by users, and could otherwise run
+    // as formulas when the export is opened in a spreadsheet.
+    static String neutralised(String text) {
+        if (text == null || text.isEmpty()) {
+            return text;
+        }
+        return switch (text.charAt(0)) {
+            case '=', '+', '-', '@', '\t', '\r' -> "'" + text;
+            default -> text;
+        };
+    }
+
+    private void writeField(Object value, boolean separator) throws IOException {
+        if (value != null) {
+            var text = value.toString();
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(text.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(text);
+            }
+        }
+        if (separator) {
+            writer.write(',');
+        }
+    }
+}
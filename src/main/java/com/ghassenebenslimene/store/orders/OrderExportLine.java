@@ -0,0 +1,22 @@
+package com.ghassenebenslimene.store.orders;
+
+import com.ghassenebenslimene.store.common.Money;
+
+import java.time.LocalDateTime;
+
+// One order item with its order's fields; item fields are null for an
+// order without items.
+public interface OrderExportLine {
+    Long getOrderId();
+    LocalDateTime getCreatedAt();
+    PaymentStatus getStatus();
+    Long getCustomerId();
+    String getCustomerEmail();
+    Money getOrderTotal();
+    Long getItemId();
+    Long getProductId();
+    String getProductName();
+    Integer getQuantity();
+    Money getUnitPrice();
+    Money getLineTotal();
+}
@@ -0,0 +1,22 @@
+package com.ghassenebenslimene.store.orders;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+public class OrderExportRowDto {
+    private Long orderId;
+    private LocalDateTime createdAt;
+    private String status;
+    private Long customerId;
+    private String customerEmail;
+    private BigDecimal orderTotal;
+    private Long itemId;
+    private Long productId;
+    private String productName;
+    private Integer quantity;
+    private BigDecimal unitPrice;
+    private BigDecimal lineTotal;
+}
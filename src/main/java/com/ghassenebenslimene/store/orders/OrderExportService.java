@@ -0,0 +1,31 @@
+package com.ghassenebenslimene.store.orders;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+/**
+ * Streams orders and their items, one row per item, from a forward-only
+ * cursor. Rows are scalar projections handed to the consumer one at a time,
+ * so memory use does not depend on the size of the export.
+ */
+@RequiredArgsConstructor
+@Service
+public class OrderExportService {
+    private final OrderRepository orderRepository;
+    private final OrderMapper orderMapper;
+
+    /**
+     * Exports orders created from the start of {@code from} to the end of
+     * {@code to}, ordered by order id then item id.
+     */
+    @Transactional(readOnly = true)
+    public void exportOrders(LocalDate from, LocalDate to, Consumer<OrderExportRowDto> consumer) {
+        try (var lines = orderRepository.streamExportLines(from.atStartOfDay(), to.plusDays(1).atStartOfDay())) {
+            lines.forEach(line -> consumer.accept(orderMapper.toExportRowDto(line)));
+        }
+    }
+}
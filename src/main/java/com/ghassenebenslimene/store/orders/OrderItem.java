@@ -1,13 +1,12 @@
 package com.ghassenebenslimene.store.orders;
 
+import com.ghassenebenslimene.store.common.Money;
 import com.ghassenebenslimene.store.products.Product;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
-import java.math.BigDecimal;
-
 @Getter
 @Setter
 @Entity
@@ -27,20 +26,26 @@ public class OrderItem {
     @JoinColumn(name = "product_id")
     private Product product;
 
+    // The product's category when the order was placed. Sales stay counted
+    // under it when the product moves, so the rollups can take them back out.
+    @Column(name = "category_id")
+    private Byte categoryId;
+
     @Column(name = "unit_price")
-    private BigDecimal unitPrice;
+    private Money unitPrice;
 
     @Column(name = "quantity")
     private Integer quantity;
 
     @Column(name = "total_price")
-    private BigDecimal totalPrice;
+    private Money totalPrice;
 
     public OrderItem(Order order, Product product, Integer quantity) {
         this.order = order;
         this.product = product;
+        this.categoryId = product.getCategory() != null ? product.getCategory().getId() : null;
         this.quantity = quantity;
-        this.unitPrice = product.getPrice();
-        this.totalPrice = unitPrice.multiply(BigDecimal.valueOf(quantity));
+        this.unitPrice = Money.of(product.getPrice());
+        this.totalPrice = unitPrice.times(quantity);
     }
 }
\ No newline at end of file
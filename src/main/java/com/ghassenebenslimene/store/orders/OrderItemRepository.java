@@ -0,0 +1,29 @@
+package com.ghassenebenslimene.store.orders;
+
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+    @Query("SELECT p.id AS productId, p.category.id AS categoryId, oi.quantity AS quantity " +
+           "FROM OrderItem oi JOIN oi.product p WHERE oi.order.id = :orderId")
+    List<ProductSale> findSalesByOrderId(@Param("orderId") Long orderId);
+
+    @Query("SELECT oi.order.id AS orderId, oi.product.id AS productId, oi.categoryId AS categoryId, " +
+           "oi.quantity AS quantity, oi.totalPrice AS totalPrice " +
+           "FROM OrderItem oi WHERE oi.order.id IN :orderIds")
+    List<SalesLine> findSalesLinesByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT p.id AS productId, p.category.id AS categoryId, oi.quantity AS quantity " +
+           "FROM OrderItem oi JOIN oi.product p WHERE oi.order.status = :status")
+    Stream<ProductSale> streamSalesByOrderStatus(@Param("status") PaymentStatus status);
+}
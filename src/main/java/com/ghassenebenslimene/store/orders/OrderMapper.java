@@ -1,8 +1,13 @@
 package com.ghassenebenslimene.store.orders;
 
+import com.ghassenebenslimene.store.common.MoneyMapper;
 import org.mapstruct.Mapper;
 
-@Mapper(componentModel = "spring")
+@Mapper(componentModel = "spring", uses = MoneyMapper.class)
 public interface OrderMapper {
     OrderDto toDto(Order order);
+
+    OrderSummaryDto toSummaryDto(OrderSummary summary);
+
+    OrderExportRowDto toExportRowDto(OrderExportLine line);
 }
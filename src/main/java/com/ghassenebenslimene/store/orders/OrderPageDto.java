@@ -0,0 +1,13 @@
+package com.ghassenebenslimene.store.orders;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@AllArgsConstructor
+@Data
+public class OrderPageDto {
+    private List<OrderSummaryDto> items;
+    private String nextCursor;
+}
@@ -0,0 +1,13 @@
+package com.ghassenebenslimene.store.orders;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when checkout creates an order, with its items loaded.
+ */
+@AllArgsConstructor
+@Getter
+public class OrderPlacedEvent {
+    private Order order;
+}
@@ -1,20 +1,75 @@
 package com.ghassenebenslimene.store.orders;
 
-import com.ghassenebenslimene.store.users.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
-    @EntityGraph(attributePaths = "items.product")
-    @Query("SELECT o FROM Order o WHERE o.customer = :customer")
-    List<Order> getOrdersByCustomer(@Param("customer") User customer);
+    // Newest first, keyset-paginated over orders_customer_created_at_index.
+    // Items are only counted here; they are loaded by getOrderWithItems.
+    @Query("SELECT o.id AS id, o.status AS status, o.createdAt AS createdAt, o.totalPrice AS totalPrice, " +
+           "(SELECT COUNT(i) FROM OrderItem i WHERE i.order = o) AS itemCount " +
+           "FROM Order o WHERE o.customer.id = :customerId " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderSummary> findSummariesByCustomer(@Param("customerId") Long customerId, Limit limit);
+
+    @Query("SELECT o.id AS id, o.status AS status, o.createdAt AS createdAt, o.totalPrice AS totalPrice, " +
+           "(SELECT COUNT(i) FROM OrderItem i WHERE i.order = o) AS itemCount " +
+           "FROM Order o WHERE o.customer.id = :customerId " +
+           "AND (o.createdAt < :afterCreatedAt OR (o.createdAt = :afterCreatedAt AND o.id < :afterId)) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderSummary> findSummariesByCustomer(
+        @Param("customerId") Long customerId,
+        @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+        @Param("afterId") Long afterId,
+        Limit limit);
+
+    @Query("SELECT o.id FROM Order o WHERE o.id > :afterId " +
+           "AND (o.rollupStatus IS NULL OR o.rollupStatus <> o.status) ORDER BY o.id")
+    List<Long> findIdsWithStaleRollupAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o.id AS id, o.createdAt AS createdAt, o.status AS status, o.rollupStatus AS rollupStatus " +
+           "FROM Order o WHERE o.id IN :orderIds ORDER BY o.id")
+    List<OrderRollupState> lockRollupStates(@Param("orderIds") Collection<Long> orderIds);
+
+    @Modifying
+    @Query("UPDATE Order o SET o.rollupStatus = o.status WHERE o.id IN :orderIds")
+    void markRolledUp(@Param("orderIds") Collection<Long> orderIds);
+
+    @Modifying
+    @Query("UPDATE Order o SET o.paymentSessionId = :sessionId WHERE o.id = :orderId")
+    void recordPaymentSession(@Param("orderId") Long orderId, @Param("sessionId") String sessionId);
+
+    @Query("SELECT o.status FROM Order o WHERE o.id = :orderId")
+    Optional<PaymentStatus> findStatusById(@Param("orderId") Long orderId);
 
     @EntityGraph(attributePaths = "items.product")
     @Query("SELECT o FROM Order o WHERE o.id = :orderId")
     Optional<Order> getOrderWithItems(@Param("orderId") Long orderId);
-}
\ No newline at end of file
+
+    // Scalar rows only, so nothing is added to the persistence context while
+    // the cursor is read; with useCursorFetch MySQL sends them 500 at a time.
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT o.id AS orderId, o.createdAt AS createdAt, o.status AS status, c.id AS customerId, " +
+           "c.email AS customerEmail, o.totalPrice AS orderTotal, oi.id AS itemId, p.id AS productId, " +
+           "p.name AS productName, oi.quantity AS quantity, oi.unitPrice AS unitPrice, oi.totalPrice AS lineTotal " +
+           "FROM Order o LEFT JOIN o.customer c LEFT JOIN o.items oi LEFT JOIN oi.product p " +
+           "WHERE o.createdAt >= :from AND o.createdAt < :to ORDER BY o.id, oi.id")
+    Stream<OrderExportLine> streamExportLines(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
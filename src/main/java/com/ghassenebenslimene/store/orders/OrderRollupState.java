@@ -0,0 +1,10 @@
+package com.ghassenebenslimene.store.orders;
+
+import java.time.LocalDateTime;
+
+public interface OrderRollupState {
+    Long getId();
+    LocalDateTime getCreatedAt();
+    PaymentStatus getStatus();
+    PaymentStatus getRollupStatus();
+}
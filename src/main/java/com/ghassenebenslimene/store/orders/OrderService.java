@@ -2,34 +2,98 @@ package com.ghassenebenslimene.store.orders;
 
 import com.ghassenebenslimene.store.auth.AuthService;
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
 @AllArgsConstructor
 @Service
 public class OrderService {
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final AuthService authService;
     private final OrderRepository orderRepository;
     private final OrderMapper orderMapper;
+    private final OrderViewService orderViewService;
+    private final OrderStatusStreams orderStatusStreams;
 
-    public List<OrderDto> getAllOrders() {
+    public OrderPageDto getOrders(String cursor, int limit) {
         var user = authService.getCurrentUser();
-        var orders = orderRepository.getOrdersByCustomer(user);
-        return orders.stream().map(orderMapper::toDto).toList();
+        var pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        // One extra row tells whether there is a next page.
+        List<OrderSummary> summaries;
+        if (cursor == null) {
+            summaries = orderRepository.findSummariesByCustomer(user.getId(), Limit.of(pageSize + 1));
+        } else {
+            var after = OrderCursor.decode(cursor);
+            summaries = orderRepository.findSummariesByCustomer(
+                user.getId(), after.createdAt(), after.id(), Limit.of(pageSize + 1));
+        }
+
+        String nextCursor = null;
+        if (summaries.size() > pageSize) {
+            summaries = summaries.subList(0, pageSize);
+            var last = summaries.get(pageSize - 1);
+            nextCursor = new OrderCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return new OrderPageDto(summaries.stream().map(orderMapper::toSummaryDto).toList(), nextCursor);
     }
 
     public OrderDto getOrder(Long orderId) {
-        var order = orderRepository
-                .getOrderWithItems(orderId)
-                .orElseThrow(OrderNotFoundException::new);
+        return orderViewService.parse(getOrderView(orderId));
+    }
+
+    /**
+     * Returns the pre-rendered OrderDto JSON of the order: a primary-key read
+     * of order_views. Orders without a view yet (placed before views existed)
+     * are rendered from orders/order_items once and stored.
+     */
+    public String getOrderJson(Long orderId) {
+        return getOrderView(orderId).getBody();
+    }
+
+    /**
+     * Opens a stream of the order's status for its customer. The current
+     * status is sent first; it is read after the stream is registered, so a
+     * change made in between is sent at least once rather than missed.
+     */
+    public SseEmitter streamStatus(Long orderId) {
+        getOrderView(orderId);
+
+        var emitter = orderStatusStreams.open(orderId);
+        try {
+            var status = orderRepository.findStatusById(orderId).orElseThrow(OrderNotFoundException::new);
+            orderStatusStreams.send(orderId, emitter, status);
+        } catch (RuntimeException e) {
+            // The stream never reaches the client: give its slot back.
+            orderStatusStreams.close(orderId, emitter);
+            throw e;
+        }
+        return emitter;
+    }
 
+    private OrderView getOrderView(Long orderId) {
         var user = authService.getCurrentUser();
-        if (!order.isPlacedBy(user)) {
-            throw new AccessDeniedException("You don't have access to this order.");
+        var view = orderViewService.find(orderId).orElse(null);
+        if (view == null) {
+            var order = orderRepository
+                    .getOrderWithItems(orderId)
+                    .orElseThrow(OrderNotFoundException::new);
+            if (!order.isPlacedBy(user)) {
+                throw new AccessDeniedException("You don't have access to this order.");
+            }
+            return orderViewService.writeIfAbsent(order);
         }
 
-        return orderMapper.toDto(order);
+        if (!view.getCustomerId().equals(user.getId())) {
+            throw new AccessDeniedException("You don't have access to this order.");
+        }
+        return view;
     }
 }
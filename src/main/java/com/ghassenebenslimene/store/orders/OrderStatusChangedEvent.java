@@ -0,0 +1,14 @@
+package com.ghassenebenslimene.store.orders;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when a payment update moves an order to a new status.
+ */
+@AllArgsConstructor
+@Getter
+public class OrderStatusChangedEvent {
+    private Order order;
+    private PaymentStatus previousStatus;
+}
@@ -0,0 +1,11 @@
+package com.ghassenebenslimene.store.orders;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@AllArgsConstructor
+@Data
+public class OrderStatusEventDto {
+    private Long orderId;
+    private String status;
+}
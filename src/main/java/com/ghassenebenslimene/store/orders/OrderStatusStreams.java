@@ -0,0 +1,119 @@
+package com.ghassenebenslimene.store.orders;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Open server-sent event streams of order status, by order id. Streams are
+ * async requests, so an idle one holds no thread, only its entry here. Status
+ * changes are pushed as {@code status} events and the stream is completed
+ * once the order leaves PENDING. A comment is sent to every stream each
+ * {@code orders.events.heartbeat-interval-ms}, which keeps proxies from
+ * closing idle connections and drops clients that went away.
+ */
+@Component
+public class OrderStatusStreams {
+    private static final String STATUS_EVENT = "status";
+
+    private final OrderEventsConfig config;
+    private final Map<Long, Set<SseEmitter>> streams = new ConcurrentHashMap<>();
+    private final AtomicInteger open = new AtomicInteger();
+
+    public OrderStatusStreams(OrderEventsConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        Gauge.builder("orders.events.open", open, AtomicInteger::get)
+            .description("Open order status streams")
+            .register(meterRegistry);
+    }
+
+    public SseEmitter open(Long orderId) {
+        if (open.incrementAndGet() > config.getMaxStreams()) {
+            open.decrementAndGet();
+            throw new TooManyOrderStreamsException();
+        }
+
+        var emitter = new SseEmitter(config.getTimeout().toMillis());
+        streams.compute(orderId, (id, emitters) -> {
+            emitters = emitters != null ? emitters : ConcurrentHashMap.newKeySet();
+            emitters.add(emitter);
+            return emitters;
+        });
+        emitter.onCompletion(() -> remove(orderId, emitter));
+        emitter.onTimeout(() -> remove(orderId, emitter));
+        emitter.onError(e -> remove(orderId, emitter));
+        return emitter;
+    }
+
+    /**
+     * Completes a stream that is not handed to its client, releasing its
+     * slot at once.
+     */
+    public void close(Long orderId, SseEmitter emitter) {
+        emitter.complete();
+        remove(orderId, emitter);
+    }
+
+    public int getOpenStreams() {
+        return open.get();
+    }
+
+    /**
+     * Sends the status to one stream, completing it if the order is no
+     * longer pending.
+     */
+    public void send(Long orderId, SseEmitter emitter, PaymentStatus status) {
+        try {
+            emitter.send(SseEmitter.event()
+                .name(STATUS_EVENT)
+                .data(new OrderStatusEventDto(orderId, status.name())));
+            if (status != PaymentStatus.PENDING) {
+                emitter.complete();
+                remove(orderId, emitter);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // The client went away or the stream has already completed.
+            remove(orderId, emitter);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        var orderId = event.getOrder().getId();
+        var emitters = streams.get(orderId);
+        if (emitters != null) {
+            emitters.forEach(emitter -> send(orderId, emitter, event.getOrder().getStatus()));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${orders.events.heartbeat-interval-ms:15000}")
+    public void sendHeartbeats() {
+        streams.forEach((orderId, emitters) -> emitters.forEach(emitter -> {
+            try {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            } catch (IOException | IllegalStateException e) {
+                remove(orderId, emitter);
+            }
+        }));
+    }
+
+    // Called from every completion path of a stream; only the first call
+    // for an emitter releases its slot.
+    private void remove(Long orderId, SseEmitter emitter) {
+        streams.computeIfPresent(orderId, (id, emitters) -> {
+            if (emitters.remove(emitter)) {
+                open.decrementAndGet();
+            }
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
@@ -0,0 +1,13 @@
+package com.ghassenebenslimene.store.orders;
+
+import com.ghassenebenslimene.store.common.Money;
+
+import java.time.LocalDateTime;
+
+public interface OrderSummary {
+    Long getId();
+    PaymentStatus getStatus();
+    LocalDateTime getCreatedAt();
+    Money getTotalPrice();
+    Long getItemCount();
+}
@@ -0,0 +1,15 @@
+package com.ghassenebenslimene.store.orders;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+public class OrderSummaryDto {
+    private Long id;
+    private String status;
+    private LocalDateTime createdAt;
+    private BigDecimal totalPrice;
+    private long itemCount;
+}
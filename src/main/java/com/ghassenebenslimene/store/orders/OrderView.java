@@ -0,0 +1,35 @@
+package com.ghassenebenslimene.store.orders;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Read model of an order: the OrderDto JSON served by GET /orders/{orderId},
+ * rendered whenever the order is written. The customer id is kept next to it
+ * so the ownership check needs no join.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "order_views")
+public class OrderView {
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "customer_id")
+    private Long customerId;
+
+    @Lob
+    @Column(name = "body")
+    private String body;
+
+    public OrderView(Long orderId, Long customerId, String body) {
+        this.orderId = orderId;
+        this.customerId = customerId;
+        this.body = body;
+    }
+}
@@ -0,0 +1,26 @@
+package com.ghassenebenslimene.store.orders;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface OrderViewRepository extends JpaRepository<OrderView, Long> {
+    // One statement whether or not the view exists, instead of the select
+    // a merge of an entity with an assigned id would issue first.
+    @Modifying
+    @Query(value = "INSERT INTO order_views (order_id, customer_id, body) " +
+                   "VALUES (:orderId, :customerId, :body) " +
+                   "ON DUPLICATE KEY UPDATE customer_id = :customerId, body = :body",
+           nativeQuery = true)
+    void upsert(@Param("orderId") Long orderId, @Param("customerId") Long customerId, @Param("body") String body);
+
+    // For views rendered on read: a view written by a change to the order in
+    // the meantime is newer and is kept.
+    @Modifying
+    @Query(value = "INSERT INTO order_views (order_id, customer_id, body) " +
+                   "VALUES (:orderId, :customerId, :body) " +
+                   "ON DUPLICATE KEY UPDATE order_id = order_id",
+           nativeQuery = true)
+    void insertIfAbsent(@Param("orderId") Long orderId, @Param("customerId") Long customerId, @Param("body") String body);
+}
@@ -0,0 +1,59 @@
+package com.ghassenebenslimene.store.orders;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@RequiredArgsConstructor
+@Service
+public class OrderViewService {
+    private final OrderViewRepository orderViewRepository;
+    private final OrderMapper orderMapper;
+    private final ObjectMapper objectMapper;
+
+    public Optional<OrderView> find(Long orderId) {
+        return orderViewRepository.findById(orderId);
+    }
+
+    /**
+     * Renders the order, which must have its items and products loaded, and
+     * stores the result. Called in the transaction that changes the order.
+     */
+    @Transactional
+    public OrderView write(Order order) {
+        var view = new OrderView(order.getId(), order.getCustomer().getId(), render(order));
+        orderViewRepository.upsert(view.getOrderId(), view.getCustomerId(), view.getBody());
+        return view;
+    }
+
+    /**
+     * Renders and stores the view of an order that had none when it was
+     * read, and returns the stored view. If a change to the order wrote one
+     * in the meantime, that view is newer than this rendering and wins.
+     */
+    @Transactional
+    public OrderView writeIfAbsent(Order order) {
+        orderViewRepository.insertIfAbsent(order.getId(), order.getCustomer().getId(), render(order));
+        return orderViewRepository.findById(order.getId()).orElseThrow();
+    }
+
+    public OrderDto parse(OrderView view) {
+        try {
+            return objectMapper.readValue(view.getBody(), OrderDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable view of order " + view.getOrderId(), e);
+        }
+    }
+
+    private String render(Order order) {
+        try {
+            return objectMapper.writeValueAsString(orderMapper.toDto(order));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not render order " + order.getId(), e);
+        }
+    }
+}
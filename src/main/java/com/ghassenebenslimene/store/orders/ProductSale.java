@@ -0,0 +1,7 @@
+package com.ghassenebenslimene.store.orders;
+
+public interface ProductSale {
+    Long getProductId();
+    Byte getCategoryId();
+    Integer getQuantity();
+}
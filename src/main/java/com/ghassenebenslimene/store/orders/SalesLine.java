@@ -0,0 +1,11 @@
+package com.ghassenebenslimene.store.orders;
+
+import com.ghassenebenslimene.store.common.Money;
+
+public interface SalesLine {
+    Long getOrderId();
+    Long getProductId();
+    Byte getCategoryId();
+    Integer getQuantity();
+    Money getTotalPrice();
+}
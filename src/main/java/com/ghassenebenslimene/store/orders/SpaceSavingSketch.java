@@ -0,0 +1,57 @@
+package com.ghassenebenslimene.store.orders;
+
+import java.util.*;
+
+/**
+ * Space-Saving heavy-hitters sketch: tracks at most {@code capacity} items.
+ * When a new item arrives and the sketch is full, it replaces the item with
+ * the smallest count and inherits that count. Counts are therefore upper
+ * bounds that overestimate by at most the inherited amount, and any item
+ * whose true count exceeds total / capacity is guaranteed to be tracked.
+ * Not thread-safe.
+ */
+class SpaceSavingSketch {
+    private final int capacity;
+    private final Map<Long, Counter> counters = new HashMap<>();
+    private final TreeSet<Counter> byCount = new TreeSet<>(
+        Comparator.comparingLong(Counter::count).thenComparingLong(Counter::item)
+    );
+
+    SpaceSavingSketch(int capacity) {
+        this.capacity = capacity;
+    }
+
+    void add(long item, long weight) {
+        var counter = counters.get(item);
+        if (counter == null && counters.size() >= capacity) {
+            var evicted = byCount.pollFirst();
+            counters.remove(evicted.item());
+            counter = new Counter(item, evicted.count(), evicted.count());
+        } else if (counter == null) {
+            counter = new Counter(item, 0, 0);
+        } else {
+            byCount.remove(counter);
+        }
+
+        var updated = new Counter(item, counter.count() + weight, counter.error());
+        counters.put(item, updated);
+        byCount.add(updated);
+    }
+
+    List<Counter> top(int limit) {
+        var top = new ArrayList<Counter>(Math.min(limit, counters.size()));
+        var iterator = byCount.descendingIterator();
+        while (iterator.hasNext() && top.size() < limit) {
+            top.add(iterator.next());
+        }
+        return top;
+    }
+
+    void clear() {
+        counters.clear();
+        byCount.clear();
+    }
+
+    record Counter(long item, long count, long error) {
+    }
+}
@@ -0,0 +1,7 @@
+package com.ghassenebenslimene.store.orders;
+
+public class TooManyOrderStreamsException extends RuntimeException {
+    public TooManyOrderStreamsException() {
+        super("Too many open order status streams");
+    }
+}
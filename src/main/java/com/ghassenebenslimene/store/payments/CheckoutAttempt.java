@@ -0,0 +1,57 @@
+package com.ghassenebenslimene.store.payments;
+
+import java.util.function.Consumer;
+
+/**
+ * How far one checkout got. A checkout that fails before its order commits,
+ * or whose order was canceled, can be retried; once a payment session exists
+ * its response is what every retry must get. One whose payment session may
+ * or may not exist can be neither retried nor replayed. The order id is handed to
+ * {@code orderRecorder} inside the transaction that places the order, so
+ * whatever records it commits, or rolls back, with the order.
+ */
+class CheckoutAttempt {
+    private final Consumer<Long> orderRecorder;
+
+    private boolean orderPlaced;
+    private boolean orderCanceled;
+    private boolean paymentOutcomeUnknown;
+    private CheckoutResponse response;
+
+    CheckoutAttempt() {
+        this(orderId -> { });
+    }
+
+    CheckoutAttempt(Consumer<Long> orderRecorder) {
+        this.orderRecorder = orderRecorder;
+    }
+
+    // Called inside the transaction that places the order.
+    void recordOrder(Long orderId) {
+        orderRecorder.accept(orderId);
+    }
+
+    void orderPlaced() {
+        orderPlaced = true;
+    }
+
+    void orderCanceled() {
+        orderCanceled = true;
+    }
+
+    void paymentOutcomeUnknown() {
+        paymentOutcomeUnknown = true;
+    }
+
+    void paymentSessionCreated(CheckoutResponse response) {
+        this.response = response;
+    }
+
+    boolean isRetryable() {
+        return !paymentOutcomeUnknown && (!orderPlaced || orderCanceled);
+    }
+
+    CheckoutResponse getResponse() {
+        return response;
+    }
+}
@@ -3,6 +3,7 @@ package com.ghassenebenslimene.store.payments;
 import com.ghassenebenslimene.store.common.ErrorDto;
 import com.ghassenebenslimene.store.carts.CartEmptyException;
 import com.ghassenebenslimene.store.carts.CartNotFoundException;
+import com.ghassenebenslimene.store.inventory.InsufficientStockException;
 import com.ghassenebenslimene.store.orders.OrderRepository;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -20,8 +21,11 @@ public class CheckoutController {
     private final OrderRepository orderRepository;
 
     @PostMapping
-    public CheckoutResponse checkout(@Valid @RequestBody CheckoutRequest request) {
-        return checkoutService.checkout(request);
+    public CheckoutResponse checkout(
+        @Valid @RequestBody CheckoutRequest request,
+        @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey
+    ) {
+        return checkoutService.checkout(request, idempotencyKey);
     }
 
     @PostMapping("/webhook")
@@ -39,8 +43,29 @@ public class CheckoutController {
                 .body(new ErrorDto("Error creating a checkout session"));
     }
 
+    @ExceptionHandler(PaymentOutcomeUnknownException.class)
+    public ResponseEntity<ErrorDto> handlePaymentOutcomeUnknown() {
+        return ResponseEntity
+                .status(HttpStatus.BAD_GATEWAY)
+                .body(new ErrorDto("The payment provider did not confirm the checkout session; check the order before retrying"));
+    }
+
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<ErrorDto> handleInsufficientStock(InsufficientStockException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorDto(ex.getMessage()));
+    }
+
+    @ExceptionHandler(CheckoutInProgressException.class)
+    public ResponseEntity<ErrorDto> handleCheckoutInProgress(CheckoutInProgressException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorDto(ex.getMessage()));
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<ErrorDto> handleIdempotencyKeyReused(IdempotencyKeyReusedException ex) {
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(new ErrorDto(ex.getMessage()));
+    }
 
-    @ExceptionHandler({CartNotFoundException.class, CartEmptyException.class})
+    @ExceptionHandler({CartNotFoundException.class, CartEmptyException.class, InvalidIdempotencyKeyException.class})
     public ResponseEntity<ErrorDto> handleException(Exception ex) {
         return ResponseEntity.badRequest().body(new ErrorDto(ex.getMessage()));
     }
@@ -0,0 +1,20 @@
+package com.ghassenebenslimene.store.payments;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "checkout.idempotency")
+@Data
+public class CheckoutIdempotencyConfig {
+    // How long a completed checkout is replayed for its key.
+    private Duration ttl = Duration.ofHours(24);
+    // Completed checkouts kept in memory; older ones are read from the table.
+    private int maxCachedKeys = 100_000;
+    // A key claimed longer ago than this without placing its order belongs
+    // to a checkout that died, and may be claimed again.
+    private Duration claimTimeout = Duration.ofMinutes(1);
+}
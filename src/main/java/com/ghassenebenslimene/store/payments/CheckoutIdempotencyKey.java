@@ -0,0 +1,64 @@
+package com.ghassenebenslimene.store.payments;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A checkout request identified by its Idempotency-Key. The row is inserted
+ * before the checkout runs, which claims the key. It gets the order id in the
+ * transaction that places the order, and the checkout URL once the payment
+ * session exists; until then duplicates are refused.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "checkout_idempotency_keys")
+public class CheckoutIdempotencyKey {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "customer_id")
+    private Long customerId;
+
+    @Column(name = "idempotency_key")
+    private String idempotencyKey;
+
+    @Column(name = "cart_id")
+    private UUID cartId;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "checkout_url")
+    private String checkoutUrl;
+
+    @Column(name = "created_at")
+    private Instant createdAt;
+
+    @Column(name = "expires_at")
+    private Instant expiresAt;
+
+    public CheckoutIdempotencyKey(Long customerId, String idempotencyKey, UUID cartId, Instant createdAt, Instant expiresAt) {
+        this.customerId = customerId;
+        this.idempotencyKey = idempotencyKey;
+        this.cartId = cartId;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isCompleted() {
+        return checkoutUrl != null;
+    }
+
+    public boolean hasOrder() {
+        return orderId != null;
+    }
+}
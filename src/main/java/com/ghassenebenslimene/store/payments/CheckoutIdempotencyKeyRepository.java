@@ -0,0 +1,24 @@
+package com.ghassenebenslimene.store.payments;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface CheckoutIdempotencyKeyRepository extends JpaRepository<CheckoutIdempotencyKey, Long> {
+    Optional<CheckoutIdempotencyKey> findByCustomerIdAndIdempotencyKey(Long customerId, String idempotencyKey);
+
+    @Modifying
+    @Query("UPDATE CheckoutIdempotencyKey k SET k.orderId = :orderId WHERE k.id = :id AND k.orderId IS NULL")
+    int recordOrder(@Param("id") Long id, @Param("orderId") Long orderId);
+
+    // Claims naming an order whose checkout never completed are kept: the
+    // order may still be paid, so the key must not place another one.
+    @Modifying
+    @Query("DELETE FROM CheckoutIdempotencyKey k " +
+           "WHERE k.expiresAt < :now AND (k.orderId IS NULL OR k.checkoutUrl IS NOT NULL)")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,207 @@
+package com.ghassenebenslimene.store.payments;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Runs a checkout at most once per customer and Idempotency-Key, and replays
+ * its response to duplicates for {@code checkout.idempotency.ttl}. Completed
+ * checkouts are looked up in a bounded in-memory map first, then in
+ * checkout_idempotency_keys, so replays survive restarts. Duplicates arriving
+ * while the first request is still running on this instance wait for its
+ * result; a key claimed by another instance is answered with 409 until that
+ * checkout completes. The claim gets the order id in the transaction that
+ * places the order, and a claim naming an order never times out. A failed
+ * checkout releases its key only if it failed before its order committed or
+ * its order was canceled; one that failed after creating its payment session
+ * is stored like a completed one.
+ */
+@Service
+public class CheckoutIdempotencyService {
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final CheckoutIdempotencyKeyRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final CheckoutIdempotencyConfig config;
+
+    private final Cache<Key, Completed> completed;
+    private final Map<Key, CompletableFuture<Completed>> inFlight = new ConcurrentHashMap<>();
+
+    public CheckoutIdempotencyService(
+        CheckoutIdempotencyKeyRepository repository,
+        TransactionTemplate transactionTemplate,
+        CheckoutIdempotencyConfig config
+    ) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.config = config;
+        this.completed = Caffeine.newBuilder()
+            .maximumSize(config.getMaxCachedKeys())
+            .expireAfterWrite(config.getTtl())
+            .build();
+    }
+
+    public CheckoutResponse execute(
+        Long customerId,
+        String idempotencyKey,
+        UUID cartId,
+        Function<CheckoutAttempt, CheckoutResponse> checkout
+    ) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException();
+        }
+
+        var key = new Key(customerId, idempotencyKey);
+        var result = completed.getIfPresent(key);
+        if (result == null) {
+            var future = new CompletableFuture<Completed>();
+            var running = inFlight.putIfAbsent(key, future);
+            result = running != null ? await(running) : run(key, cartId, checkout, future);
+        }
+
+        if (!result.cartId().equals(cartId)) {
+            throw new IdempotencyKeyReusedException();
+        }
+        return result.response();
+    }
+
+    @Scheduled(fixedDelayString = "${checkout.idempotency.sweep-interval-ms:3600000}")
+    public void deleteExpiredKeys() {
+        transactionTemplate.executeWithoutResult(status -> repository.deleteExpired(Instant.now()));
+    }
+
+    private Completed run(
+        Key key,
+        UUID cartId,
+        Function<CheckoutAttempt, CheckoutResponse> checkout,
+        CompletableFuture<Completed> future
+    ) {
+        try {
+            var result = stored(key);
+            if (result == null) {
+                result = runClaimed(key, claim(key, cartId), cartId, checkout, future);
+            }
+            completed.put(key, result);
+            future.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            // Already completed if the checkout failed after its payment
+            // session was created.
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    // Returns the stored result of a completed checkout, or null if the key
+    // is free to be claimed.
+    private Completed stored(Key key) {
+        var now = Instant.now();
+        var row = repository.findByCustomerIdAndIdempotencyKey(key.customerId(), key.idempotencyKey()).orElse(null);
+        if (row == null) {
+            return null;
+        }
+        if (row.isCompleted()) {
+            if (row.getExpiresAt().isAfter(now)) {
+                return new Completed(row.getCartId(), new CheckoutResponse(row.getOrderId(), row.getCheckoutUrl()));
+            }
+        } else if (row.hasOrder() || row.getCreatedAt().plus(config.getClaimTimeout()).isAfter(now)) {
+            // Still running, or its order exists but the outcome of its
+            // payment session is unknown: never run it a second time.
+            throw new CheckoutInProgressException();
+        }
+        // Expired, or left behind by a checkout that died before placing
+        // its order.
+        transactionTemplate.executeWithoutResult(status -> repository.deleteById(row.getId()));
+        return null;
+    }
+
+    // Returns the id of the claim row.
+    private Long claim(Key key, UUID cartId) {
+        var now = Instant.now();
+        try {
+            return transactionTemplate.execute(status -> repository.saveAndFlush(new CheckoutIdempotencyKey(
+                key.customerId(), key.idempotencyKey(), cartId, now, now.plus(config.getTtl()))).getId());
+        } catch (DataIntegrityViolationException e) {
+            // Claimed by another instance in the meantime.
+            throw new CheckoutInProgressException();
+        }
+    }
+
+    private Completed runClaimed(
+        Key key,
+        Long claimId,
+        UUID cartId,
+        Function<CheckoutAttempt, CheckoutResponse> checkout,
+        CompletableFuture<Completed> future
+    ) {
+        var attempt = new CheckoutAttempt(orderId -> recordOrder(claimId, orderId));
+        CheckoutResponse response;
+        try {
+            response = checkout.apply(attempt);
+        } catch (RuntimeException e) {
+            if (attempt.getResponse() != null) {
+                // The order and its payment session exist, only a later step
+                // failed: duplicates get the session instead of a new order.
+                var result = store(claimId, cartId, attempt.getResponse());
+                completed.put(key, result);
+                future.complete(result);
+            } else if (attempt.isRetryable()) {
+                // Nothing to replay: release the key so the client can retry.
+                transactionTemplate.executeWithoutResult(status -> repository.deleteById(claimId));
+            }
+            // Otherwise the order committed but its outcome is unknown; the
+            // claim names the order, so duplicates cannot place a second one.
+            throw e;
+        }
+        return store(claimId, cartId, response);
+    }
+
+    // Joins the transaction placing the order. A claim that was taken over
+    // after timing out rolls the order back.
+    private void recordOrder(Long claimId, Long orderId) {
+        if (repository.recordOrder(claimId, orderId) == 0) {
+            throw new CheckoutInProgressException();
+        }
+    }
+
+    private Completed store(Long claimId, UUID cartId, CheckoutResponse response) {
+        transactionTemplate.executeWithoutResult(status -> {
+            var row = repository.findById(claimId).orElseThrow(() ->
+                new IllegalStateException("Idempotency claim " + claimId + " of order " + response.getOrderId() + " is gone"));
+            row.setOrderId(response.getOrderId());
+            row.setCheckoutUrl(response.getCheckoutUrl());
+        });
+        return new Completed(cartId, response);
+    }
+
+    private static Completed await(CompletableFuture<Completed> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Key(Long customerId, String idempotencyKey) {
+    }
+
+    private record Completed(UUID cartId, CheckoutResponse response) {
+    }
+}
@@ -0,0 +1,7 @@
+package com.ghassenebenslimene.store.payments;
+
+public class CheckoutInProgressException extends RuntimeException {
+    public CheckoutInProgressException() {
+        super("A checkout with this Idempotency-Key is in progress.");
+    }
+}
@@ -4,13 +4,23 @@ import com.ghassenebenslimene.store.orders.Order;
 import com.ghassenebenslimene.store.carts.CartEmptyException;
 import com.ghassenebenslimene.store.carts.CartNotFoundException;
 import com.ghassenebenslimene.store.carts.CartRepository;
+import com.ghassenebenslimene.store.inventory.InventoryService;
+import com.ghassenebenslimene.store.orders.OrderPlacedEvent;
 import com.ghassenebenslimene.store.orders.OrderRepository;
+import com.ghassenebenslimene.store.orders.OrderStatusChangedEvent;
+import com.ghassenebenslimene.store.orders.OrderViewService;
+import com.ghassenebenslimene.store.orders.PaymentStatus;
 import com.ghassenebenslimene.store.auth.AuthService;
 import com.ghassenebenslimene.store.carts.CartService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.UUID;
+
+@Slf4j
 @RequiredArgsConstructor
 @Service
 public class CheckoutService {
@@ -19,10 +29,90 @@ public class CheckoutService {
     private final AuthService authService;
     private final CartService cartService;
     private final PaymentGateway paymentGateway;
+    private final InventoryService inventoryService;
+    private final OrderViewService orderViewService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final CheckoutIdempotencyService checkoutIdempotencyService;
+
+    /**
+     * Checks out at most once per Idempotency-Key: a repeated key gets the
+     * response of the first request. Without a key every call checks out.
+     */
+    public CheckoutResponse checkout(CheckoutRequest request, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return checkout(request);
+        }
+
+        var customerId = authService.getCurrentUser().getId();
+        return checkoutIdempotencyService.execute(
+            customerId, idempotencyKey, request.getCartId(), attempt -> checkout(request, attempt));
+    }
 
-    @Transactional
+    /**
+     * Runs in three steps so no database connection is held while the
+     * payment gateway is called: the PENDING order is committed with its
+     * stock reserved, the payment session is created outside any
+     * transaction, and its id is recorded in a second short transaction.
+     * Each step returns its connection before the next one starts, so a
+     * checkout holds at most one connection at a time. If the session
+     * cannot be created the order is canceled, which releases its stock. If
+     * the gateway cannot tell whether it was created, the order is left
+     * PENDING for the webhook or the reservation expiry to settle.
+     */
     public CheckoutResponse checkout(CheckoutRequest request) {
-        var cart = cartRepository.getCartWithItems(request.getCartId()).orElse(null);
+        return checkout(request, new CheckoutAttempt());
+    }
+
+    private CheckoutResponse checkout(CheckoutRequest request, CheckoutAttempt attempt) {
+        cartService.flushCart(request.getCartId());
+        var order = transactionTemplate.execute(status -> placeOrder(request.getCartId(), attempt));
+        attempt.orderPlaced();
+
+        CheckoutSession session;
+        try {
+            session = paymentGateway.createCheckoutSession(order);
+        }
+        catch (PaymentOutcomeUnknownException ex) {
+            // The session may exist and be paid, so the order must not be
+            // canceled, nor the checkout retried.
+            attempt.paymentOutcomeUnknown();
+            log.warn("Payment session of order {} may exist; the order is left pending", order.getId(), ex);
+            throw ex;
+        }
+        catch (RuntimeException ex) {
+            transactionTemplate.executeWithoutResult(status -> cancel(order));
+            attempt.orderCanceled();
+            // Published once the cancel has committed: the inventory listener
+            // must release the stock in a transaction of its own.
+            eventPublisher.publishEvent(new OrderStatusChangedEvent(order, PaymentStatus.PENDING));
+            throw ex;
+        }
+
+        var response = new CheckoutResponse(order.getId(), session.getCheckoutUrl());
+        attempt.paymentSessionCreated(response);
+
+        transactionTemplate.executeWithoutResult(status ->
+            orderRepository.recordPaymentSession(order.getId(), session.getSessionId()));
+        cartService.clearCart(request.getCartId());
+
+        return response;
+    }
+
+    /**
+     * Applies a payment update. The status and the order's view are written
+     * in one transaction, so the view never disagrees with a committed
+     * status; the change is published once that transaction has committed.
+     */
+    public void handleWebhookEvent(WebhookRequest request) {
+        paymentGateway
+            .parseWebhookRequest(request)
+            .map(paymentResult -> transactionTemplate.execute(status -> updateStatus(paymentResult)))
+            .ifPresent(eventPublisher::publishEvent);
+    }
+
+    private Order placeOrder(UUID cartId, CheckoutAttempt attempt) {
+        var cart = cartRepository.getCartWithItems(cartId).orElse(null);
         if (cart == null) {
             throw new CartNotFoundException();
         }
@@ -34,27 +124,34 @@ public class CheckoutService {
         var order = Order.fromCart(cart, authService.getCurrentUser());
 
         orderRepository.save(order);
+        orderViewService.write(order);
+        inventoryService.reserve(order);
+        attempt.recordOrder(order.getId());
+        eventPublisher.publishEvent(new OrderPlacedEvent(order));
 
-        try {
-            var session = paymentGateway.createCheckoutSession(order);
-
-            cartService.clearCart(cart.getId());
+        return order;
+    }
 
-            return new CheckoutResponse(order.getId(), session.getCheckoutUrl());
-        }
-        catch (PaymentException ex) {
-            orderRepository.delete(order);
-            throw ex;
+    // Returns null if the order already has the reported status.
+    private OrderStatusChangedEvent updateStatus(PaymentResult paymentResult) {
+        var order = orderRepository.getOrderWithItems(paymentResult.getOrderId()).orElseThrow();
+        var previousStatus = order.getStatus();
+        if (previousStatus == paymentResult.getPaymentStatus()) {
+            return null;
         }
+
+        order.setStatus(paymentResult.getPaymentStatus());
+        orderRepository.save(order);
+        orderViewService.write(order);
+        return new OrderStatusChangedEvent(order, previousStatus);
     }
 
-    public void handleWebhookEvent(WebhookRequest request) {
-        paymentGateway
-            .parseWebhookRequest(request)
-            .ifPresent(paymentResult -> {
-                var order = orderRepository.findById(paymentResult.getOrderId()).orElseThrow();
-                order.setStatus(paymentResult.getPaymentStatus());
-                orderRepository.save(order);
-            });
+    // Canceled rather than deleted, so the order keeps its id for the
+    // customer and the sales rollups; the stock is released by the
+    // inventory listener.
+    private void cancel(Order order) {
+        order.setStatus(PaymentStatus.CANCELED);
+        orderRepository.save(order);
+        orderViewService.write(order);
     }
 }
@@ -0,0 +1,7 @@
+package com.ghassenebenslimene.store.payments;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+    public IdempotencyKeyReusedException() {
+        super("Idempotency-Key was already used for a different cart.");
+    }
+}
@@ -0,0 +1,7 @@
+package com.ghassenebenslimene.store.payments;
+
+public class InvalidIdempotencyKeyException extends RuntimeException {
+    public InvalidIdempotencyKeyException() {
+        super("Idempotency-Key must be 1 to " + CheckoutIdempotencyService.MAX_KEY_LENGTH + " characters.");
+    }
+}
@@ -0,0 +1,11 @@
+package com.ghassenebenslimene.store.payments;
+
+/**
+ * The payment provider could not be reached, or failed while handling the
+ * request: the checkout session may have been created.
+ */
+public class PaymentOutcomeUnknownException extends PaymentException {
+    public PaymentOutcomeUnknownException(String message) {
+        super(message);
+    }
+}
@@ -10,8 +10,18 @@ public class StripeConfig {
     @Value("${stripe.secretKey}")
     private String secretKey;
 
+    // The SDK defaults (30s to connect, 80s to read) would keep a checkout
+    // request waiting long after the customer has given up.
+    @Value("${stripe.connectTimeoutMs:5000}")
+    private int connectTimeoutMs;
+
+    @Value("${stripe.readTimeoutMs:10000}")
+    private int readTimeoutMs;
+
     @PostConstruct
     public void init() {
         Stripe.apiKey = secretKey;
+        Stripe.setConnectTimeout(connectTimeoutMs);
+        Stripe.setReadTimeout(readTimeoutMs);
     }
 }
@@ -3,6 +3,8 @@ package com.ghassenebenslimene.store.payments;
 import com.ghassenebenslimene.store.orders.Order;
 import com.ghassenebenslimene.store.orders.OrderItem;
 import com.ghassenebenslimene.store.orders.PaymentStatus;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.ApiException;
 import com.stripe.exception.SignatureVerificationException;
 import com.stripe.exception.StripeException;
 import com.stripe.model.Event;
@@ -13,7 +15,6 @@ import com.stripe.param.checkout.SessionCreateParams;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
 import java.util.Optional;
 
 @Service
@@ -39,7 +40,11 @@ public class StripePaymentGateway implements PaymentGateway {
             });
 
             var session = Session.create(builder.build());
-            return new CheckoutSession(session.getUrl());
+            return new CheckoutSession(session.getId(), session.getUrl());
+        }
+        // No answer, or a Stripe server error: the session may exist.
+        catch (ApiConnectionException | ApiException ex) {
+            throw new PaymentOutcomeUnknownException(ex.getMessage());
         }
         catch (StripeException ex) {
             System.out.println(ex.getMessage());
@@ -92,8 +97,7 @@ public class StripePaymentGateway implements PaymentGateway {
     private SessionCreateParams.LineItem.PriceData createPriceData(OrderItem item) {
         return SessionCreateParams.LineItem.PriceData.builder()
                 .setCurrency("usd")
-                .setUnitAmountDecimal(
-                    item.getUnitPrice().multiply(BigDecimal.valueOf(100)))
+                .setUnitAmount(item.getUnitPrice().cents())
                 .setProductData(createProductData(item))
                 .build();
     }
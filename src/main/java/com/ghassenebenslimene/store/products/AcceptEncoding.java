@@ -0,0 +1,62 @@
+package com.ghassenebenslimene.store.products;
+
+import java.util.Locale;
+
+/**
+ * Reads an Accept-Encoding header (RFC 9110, section 12.5.3). A coding is
+ * acceptable if it is listed with a q-value above zero or, when it is not
+ * listed, if {@code *} is. Entries with an unreadable q-value are ignored.
+ */
+final class AcceptEncoding {
+    private AcceptEncoding() {
+    }
+
+    static boolean accepts(String header, String coding) {
+        if (header == null) {
+            return false;
+        }
+
+        Double listed = null;
+        Double wildcard = null;
+        for (var entry : header.split(",")) {
+            var parameters = entry.split(";");
+            var name = parameters[0].trim().toLowerCase(Locale.ROOT);
+            if (name.isEmpty()) {
+                continue;
+            }
+            var quality = quality(parameters);
+            if (quality == null) {
+                continue;
+            }
+            if (name.equals(coding) || name.equals("x-" + coding)) {
+                listed = listed == null ? quality : Math.max(listed, quality);
+            } else if (name.equals("*")) {
+                wildcard = quality;
+            }
+        }
+
+        if (listed != null) {
+            return listed > 0;
+        }
+        return wildcard != null && wildcard > 0;
+    }
+
+    private static Double quality(String[] parameters) {
+        var quality = 1.0;
+        for (var i = 1; i < parameters.length; i++) {
+            var parameter = parameters[i].trim();
+            if (parameter.length() < 2 || Character.toLowerCase(parameter.charAt(0)) != 'q' || parameter.charAt(1) != '=') {
+                continue;
+            }
+            try {
+                quality = Double.parseDouble(parameter.substring(2).trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            if (quality < 0 || quality > 1) {
+                return null;
+            }
+        }
+        return quality;
+    }
+}
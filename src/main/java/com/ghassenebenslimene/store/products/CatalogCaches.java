@@ -0,0 +1,14 @@
+package com.ghassenebenslimene.store.products;
+
+/**
+ * Names of the catalog caches. Sizes and TTLs are configured through
+ * {@code spring.cache.caffeine.spec}; hit/miss counts are published as
+ * {@code cache.gets} metrics.
+ */
+public final class CatalogCaches {
+    public static final String PRODUCTS = "products";
+    public static final String CATEGORIES = "categories";
+
+    private CatalogCaches() {
+    }
+}
@@ -0,0 +1,34 @@
+package com.ghassenebenslimene.store.products;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Single-row counter bumped on every catalog write. List responses use it
+ * as their validator, so a conditional GET costs one primary-key lookup.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "catalog_versions")
+public class CatalogVersion {
+    @Id
+    @Column(name = "id")
+    private Byte id;
+
+    @Column(name = "version")
+    private Long version;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+}
@@ -0,0 +1,16 @@
+package com.ghassenebenslimene.store.products;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+public interface CatalogVersionRepository extends CrudRepository<CatalogVersion, Byte> {
+    @Transactional
+    @Modifying
+    @Query("UPDATE CatalogVersion c SET c.version = c.version + 1, c.updatedAt = :now WHERE c.id = :id")
+    int increment(@Param("id") Byte id, @Param("now") Instant now);
+}
@@ -0,0 +1,38 @@
+package com.ghassenebenslimene.store.products;
+
+import lombok.AllArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+
+@AllArgsConstructor
+@Service
+public class CatalogVersionService {
+    private static final Byte CATALOG_ID = 1;
+
+    private final CatalogVersionRepository catalogVersionRepository;
+
+    public CatalogVersion getCurrentVersion() {
+        return catalogVersionRepository
+                .findById(CATALOG_ID)
+                .orElseGet(() -> new CatalogVersion(CATALOG_ID, 0L, Instant.EPOCH));
+    }
+
+    @EventListener
+    public void onProductsSaved(ProductsSavedEvent event) {
+        bump();
+    }
+
+    @EventListener
+    public void onProductDeleted(ProductDeletedEvent event) {
+        bump();
+    }
+
+    private void bump() {
+        var now = Instant.now();
+        if (catalogVersionRepository.increment(CATALOG_ID, now) == 0) {
+            catalogVersionRepository.save(new CatalogVersion(CATALOG_ID, 1L, now));
+        }
+    }
+}
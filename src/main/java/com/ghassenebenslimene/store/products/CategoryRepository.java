@@ -1,6 +1,12 @@
 package com.ghassenebenslimene.store.products;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.repository.CrudRepository;
 
+import java.util.Optional;
+
 public interface CategoryRepository extends CrudRepository<Category, Byte> {
-}
\ No newline at end of file
+    @Cacheable(cacheNames = CatalogCaches.CATEGORIES, key = "#p0", unless = "#result == null")
+    @Override
+    Optional<Category> findById(Byte id);
+}
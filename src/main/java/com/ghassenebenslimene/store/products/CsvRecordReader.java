@@ -0,0 +1,134 @@
+package com.ghassenebenslimene.store.products;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 reader: comma separated, double-quoted fields with ""
+ * escapes, and line breaks allowed inside quoted fields. Reads one record
+ * at a time so arbitrarily large files can be processed; a record longer
+ * than {@code maxRecordLength} characters is skipped without being buffered.
+ * A malformed record is reported with a {@link MalformedRecordException},
+ * after which reading carries on with the next record; its line is still
+ * given by {@link #getRecordLine()}.
+ */
+class CsvRecordReader {
+    static final int DEFAULT_MAX_RECORD_LENGTH = 65_536;
+
+    private final Reader reader;
+    private final int maxRecordLength;
+    private long line = 1;
+    private long recordLine;
+    private int pushedBack = -1;
+
+    CsvRecordReader(Reader reader) {
+        this(reader, DEFAULT_MAX_RECORD_LENGTH);
+    }
+
+    CsvRecordReader(Reader reader, int maxRecordLength) {
+        this.reader = reader;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    /** Line on which the last record returned by {@link #read()} started. */
+    long getRecordLine() {
+        return recordLine;
+    }
+
+    /** Returns the next non-blank record, or null at the end of input. */
+    List<String> read() throws IOException {
+        while (true) {
+            recordLine = line;
+            var record = readRecord();
+            if (record == null) {
+                return null;
+            }
+            if (record.size() > 1 || !record.get(0).isBlank()) {
+                return record;
+            }
+        }
+    }
+
+    private List<String> readRecord() throws IOException {
+        var fields = new ArrayList<String>();
+        var field = new StringBuilder();
+        // Characters read into the record and into the current field. Past
+        // maxRecordLength the record is still parsed to find its end, but
+        // nothing more is kept.
+        var length = 0;
+        var fieldLength = 0;
+        var quoted = false;
+        var c = next();
+        if (c == -1) {
+            return null;
+        }
+
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new MalformedRecordException("Unterminated quoted field");
+                }
+                if (c == '"') {
+                    var following = next();
+                    if (following != '"') {
+                        quoted = false;
+                        c = following;
+                        continue;
+                    }
+                }
+                if (++length <= maxRecordLength) {
+                    field.append((char) c);
+                }
+                fieldLength++;
+            } else if (c == '"' && fieldLength == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                if (++length <= maxRecordLength) {
+                    fields.add(field.toString());
+                }
+                field.setLength(0);
+                fieldLength = 0;
+            } else if (c == '\n' || c == '\r' || c == -1) {
+                if (c == '\r') {
+                    var following = next();
+                    if (following != '\n') {
+                        pushedBack = following;
+                    }
+                }
+                if (length > maxRecordLength) {
+                    throw new MalformedRecordException("Record is longer than " + maxRecordLength + " characters");
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                if (++length <= maxRecordLength) {
+                    field.append((char) c);
+                }
+                fieldLength++;
+            }
+            c = next();
+        }
+    }
+
+    private int next() throws IOException {
+        int c;
+        if (pushedBack != -1) {
+            c = pushedBack;
+            pushedBack = -1;
+        } else {
+            c = reader.read();
+        }
+        if (c == '\n') {
+            line++;
+        }
+        return c;
+    }
+
+    static final class MalformedRecordException extends IOException {
+        MalformedRecordException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.ghassenebenslimene.store.products;
+
+public class InvalidProductFilterException extends RuntimeException {
+    public InvalidProductFilterException(String message) {
+        super(message);
+    }
+}
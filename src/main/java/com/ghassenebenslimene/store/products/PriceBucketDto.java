@@ -0,0 +1,16 @@
+package com.ghassenebenslimene.store.products;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@AllArgsConstructor
+@Data
+public class PriceBucketDto {
+    private BigDecimal from;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private BigDecimal to;
+    private int count;
+}
@@ -0,0 +1,13 @@
+package com.ghassenebenslimene.store.products;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@AllArgsConstructor
+@Data
+public class ProductBatchDto {
+    private List<ProductDto> items;
+    private List<Long> missing;
+}
@@ -0,0 +1,12 @@
+package com.ghassenebenslimene.store.products;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ProductBatchRequest {
+    @NotEmpty(message = "Ids are required.")
+    private List<Long> ids;
+}
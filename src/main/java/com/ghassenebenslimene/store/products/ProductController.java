@@ -1,11 +1,26 @@
 package com.ghassenebenslimene.store.products;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ghassenebenslimene.store.common.ErrorDto;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Set;
 
 @AllArgsConstructor
 @RestController
@@ -14,27 +29,118 @@ public class ProductController {
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
     private final CategoryRepository categoryRepository;
+    private final ProductService productService;
+    private final ObjectMapper objectMapper;
+    private final ProductSearchIndex productSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogVersionService catalogVersionService;
+    private final ProductImportService productImportService;
+    private final ProductListingSnapshots productListingSnapshots;
 
     @GetMapping
-    public List<ProductDto> getAllProducts(
-        @RequestParam(name = "categoryId", required = false) Byte categoryId
+    public ResponseEntity<?> getAllProducts(
+        @RequestParam(name = "categoryId", required = false) Set<Byte> categoryIds,
+        @RequestParam(name = "minPrice", required = false) BigDecimal minPrice,
+        @RequestParam(name = "maxPrice", required = false) BigDecimal maxPrice,
+        @RequestParam(name = "sort", required = false) String sort,
+        @RequestParam(name = "facets", defaultValue = "false") boolean facets,
+        @RequestParam(name = "cursor", required = false) String cursor,
+        @RequestParam(name = "limit", defaultValue = "20") int limit,
+        @RequestParam(name = "include", defaultValue = "") Set<String> include,
+        @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+        WebRequest webRequest,
+        HttpServletResponse servletResponse
     ) {
-        List<Product> products;
-        if (categoryId != null) {
-            products = productRepository.findByCategoryId(categoryId);
-        } else {
-            products = productRepository.findAllWithCategory();
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new InvalidProductFilterException("minPrice must not be greater than maxPrice");
         }
+        var productSort = ProductSort.fromParam(sort);
+
+        var catalogVersion = catalogVersionService.getCurrentVersion();
+        var includeDescription = include.contains("description");
+        var singleCategory = categoryIds == null || categoryIds.size() <= 1;
+        var browse = !singleCategory || minPrice != null || maxPrice != null || productSort != ProductSort.ID || facets;
+        var categoryId = categoryIds == null || categoryIds.isEmpty() ? null : categoryIds.iterator().next();
+        var snapshot = !browse && cursor == null && limit == ProductService.DEFAULT_PAGE_SIZE && !includeDescription
+            ? productListingSnapshots.get(categoryId, catalogVersion.getVersion()).orElse(null)
+            : null;
+        var gzip = snapshot != null && AcceptEncoding.accepts(acceptEncoding, "gzip");
+
+        // The gzip and identity bodies are different representations, so
+        // they get different ETags, and every response, 304s included, says
+        // that it depends on Accept-Encoding.
+        servletResponse.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        var etag = "\"" + catalogVersion.getVersion() + (gzip ? "-gzip" : "") + "\"";
+        if (webRequest.checkNotModified(etag, catalogVersion.getUpdatedAt().toEpochMilli())) {
+            return null;
+        }
+
+        if (browse) {
+            var filter = new ProductFilter(categoryIds, minPrice, maxPrice, productSort);
+            return ResponseEntity.ok(productService.browseProducts(filter, cursor, limit, includeDescription));
+        }
+
+        if (snapshot != null) {
+            var response = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+            if (gzip) {
+                response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            return response.body(gzip ? snapshot.getGzip() : snapshot.getJson());
+        }
+
+        return ResponseEntity.ok(productService.getProducts(categoryId, cursor, limit, includeDescription));
+    }
+
+    @GetMapping(params = "ids")
+    public ProductBatchDto getProductsByIds(@RequestParam(name = "ids") List<Long> ids) {
+        return productService.getProductsByIds(ids);
+    }
+
+    @PostMapping("/batch")
+    public ProductBatchDto getProductsByIds(@Valid @RequestBody ProductBatchRequest request) {
+        return productService.getProductsByIds(request.getIds());
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamProducts(
+        @RequestParam(name = "categoryId", required = false) Byte categoryId,
+        @RequestParam(name = "include", defaultValue = "") Set<String> include
+    ) {
+        var includeDescription = include.contains("description");
+        StreamingResponseBody body = outputStream ->
+            productService.streamProducts(categoryId, includeDescription, product -> {
+                try {
+                    outputStream.write(objectMapper.writeValueAsBytes(product));
+                    outputStream.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
 
-        return products.stream().map(productMapper::toDto).toList();
+    @GetMapping("/search")
+    public ProductSearchResultDto searchProducts(
+        @RequestParam(name = "q") String query,
+        @RequestParam(name = "page", defaultValue = "0") int page,
+        @RequestParam(name = "size", defaultValue = "20") int size
+    ) {
+        return productSearchIndex.search(query, page, size);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDto> getProduct(@PathVariable Long id) {
+    public ResponseEntity<ProductDto> getProduct(@PathVariable Long id, WebRequest webRequest) {
         var product = productRepository.findById(id).orElse(null);
         if (product == null) {
             return ResponseEntity.notFound().build();
         }
+
+        var etag = "\"" + product.getId() + "-" + product.getVersion() + "\"";
+        if (webRequest.checkNotModified(etag, product.getUpdatedAt().toEpochMilli())) {
+            return null;
+        }
+
         return ResponseEntity.ok(productMapper.toDto(product));
     }
 
@@ -51,12 +157,24 @@ public class ProductController {
         product.setCategory(category);
         productRepository.save(product);
         productDto.setId(product.getId());
+        eventPublisher.publishEvent(new ProductsSavedEvent(List.of(product)));
 
         var uri = uriBuilder.path("/products/{id}").buildAndExpand(productDto.getId()).toUri();
 
         return ResponseEntity.created(uri).body(productDto);
     }
 
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ProductImportResultDto importCsv(InputStream body) throws IOException {
+        return productImportService.importProducts(body, ProductImportFormat.CSV);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ProductImportResultDto importNdjson(InputStream body) throws IOException {
+        return productImportService.importProducts(body, ProductImportFormat.NDJSON);
+    }
+
+    @CacheEvict(cacheNames = CatalogCaches.PRODUCTS, key = "#id")
     @PutMapping("/{id}")
     public ResponseEntity<ProductDto> updateProduct(
         @PathVariable Long id,
@@ -66,7 +184,7 @@ public class ProductController {
             return ResponseEntity.badRequest().build();
         }
 
-        var product = productRepository.findById(id).orElse(null);
+        var product = productRepository.findWithCategoryById(id).orElse(null);
         if (product == null) {
             return ResponseEntity.notFound().build();
         }
@@ -75,19 +193,27 @@ public class ProductController {
         product.setCategory(category);
         productRepository.save(product);
         productDto.setId(product.getId());
+        eventPublisher.publishEvent(new ProductsSavedEvent(List.of(product)));
 
         return ResponseEntity.ok(productDto);
     }
 
+    @CacheEvict(cacheNames = CatalogCaches.PRODUCTS, key = "#id")
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteProduct(@PathVariable Long id) {
-        var product = productRepository.findById(id).orElse(null);
+        var product = productRepository.findWithCategoryById(id).orElse(null);
         if (product == null) {
             return ResponseEntity.notFound().build();
         }
 
         productRepository.delete(product);
+        eventPublisher.publishEvent(new ProductDeletedEvent(id));
 
         return ResponseEntity.noContent().build();
     }
+
+    @ExceptionHandler(InvalidProductFilterException.class)
+    public ResponseEntity<ErrorDto> handleInvalidFilter(InvalidProductFilterException exception) {
+        return ResponseEntity.badRequest().body(new ErrorDto(exception.getMessage()));
+    }
 }
@@ -0,0 +1,59 @@
+package com.ghassenebenslimene.store.products;
+
+import com.ghassenebenslimene.store.common.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for the product listing. The token is the last
+ * product id of the previous page (preceded by its sort key when the listing
+ * is not sorted by id), base64url encoded so clients treat it as an opaque
+ * value rather than an id they can tamper with.
+ */
+public final class ProductCursor {
+    private ProductCursor() {
+    }
+
+    public static String encode(long lastId) {
+        return encodeValue(Long.toString(lastId));
+    }
+
+    public static String encode(long sortKey, long lastId) {
+        return encodeValue(sortKey + ":" + lastId);
+    }
+
+    public static long decode(String cursor) {
+        try {
+            return Long.parseLong(decodeValue(cursor));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException();
+        }
+    }
+
+    /**
+     * Returns the sort key and last id of a cursor produced by
+     * {@link #encode(long, long)}.
+     */
+    public static long[] decodeKeyed(String cursor) {
+        try {
+            var parts = decodeValue(cursor).split(":", -1);
+            if (parts.length != 2) {
+                throw new InvalidCursorException();
+            }
+            return new long[] { Long.parseLong(parts[0]), Long.parseLong(parts[1]) };
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException();
+        }
+    }
+
+    private static String encodeValue(String value) {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeValue(String cursor) {
+        return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,10 @@
+package com.ghassenebenslimene.store.products;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public class ProductDeletedEvent {
+    private Long productId;
+}
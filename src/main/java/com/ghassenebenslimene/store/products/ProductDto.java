@@ -1,5 +1,6 @@
 package com.ghassenebenslimene.store.products;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 
 import java.math.BigDecimal;
@@ -9,6 +10,7 @@ public class ProductDto {
     private Long id;
     private String name;
     private BigDecimal price;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String description;
     private Byte categoryId;
 }
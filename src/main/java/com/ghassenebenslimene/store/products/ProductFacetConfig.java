@@ -0,0 +1,18 @@
+package com.ghassenebenslimene.store.products;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "catalog.facets")
+@Data
+public class ProductFacetConfig {
+    // Upper bounds of the price buckets; the last bucket is open-ended.
+    private List<BigDecimal> priceBuckets = List.of(
+        BigDecimal.valueOf(10), BigDecimal.valueOf(25), BigDecimal.valueOf(50), BigDecimal.valueOf(100)
+    );
+}
@@ -0,0 +1,325 @@
+package com.ghassenebenslimene.store.products;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * Columnar in-memory index for faceted catalog navigation. Prices (in cents)
+ * and category ids are stored in primitive arrays addressed by position,
+ * positions are kept in ascending id order, and each category has a bitset
+ * of its positions. Filtering, facet counts and sorting are answered from
+ * these columns; only the final page of products is loaded from the database.
+ */
+@RequiredArgsConstructor
+@Component
+public class ProductFacetIndex {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final byte NO_CATEGORY = -1;
+
+    private final ProductRepository productRepository;
+    private final ProductFacetConfig config;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private long[] prices = new long[INITIAL_CAPACITY];
+    private byte[] categoryIds = new byte[INITIAL_CAPACITY];
+    private int size;
+    private BitSet live = new BitSet();
+    private final Map<Byte, BitSet> categories = new HashMap<>();
+    // Live positions ordered by (price, id); dropped on every write and
+    // rebuilt by the next price-sorted query.
+    private volatile int[] priceOrder;
+
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        try (var summaries = productRepository.streamSummaries(null)) {
+            summaries.forEach(summary -> put(summary.getId(), summary.getPrice(), summary.getCategoryId()));
+        }
+    }
+
+    @EventListener
+    public void onProductsSaved(ProductsSavedEvent event) {
+        event.getProducts().forEach(product -> put(
+            product.getId(),
+            product.getPrice(),
+            product.getCategory() != null ? product.getCategory().getId() : null
+        ));
+    }
+
+    @EventListener
+    public void onProductDeleted(ProductDeletedEvent event) {
+        remove(event.getProductId());
+    }
+
+    public void put(long id, BigDecimal price, Byte categoryId) {
+        var cents = toCents(price, RoundingMode.HALF_UP);
+        var category = categoryId != null ? categoryId : NO_CATEGORY;
+
+        lock.writeLock().lock();
+        try {
+            var position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                position = insert(-position - 1, id);
+            } else if (live.get(position)) {
+                categoryBits(categoryIds[position]).clear(position);
+            }
+
+            prices[position] = cents;
+            categoryIds[position] = category;
+            live.set(position);
+            categoryBits(category).set(position);
+            priceOrder = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            var position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0 && live.get(position)) {
+                live.clear(position);
+                categoryBits(categoryIds[position]).clear(position);
+                priceOrder = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public ProductFacetPage query(ProductFilter filter, String cursor, int pageSize) {
+        var minPrice = filter.getMinPrice() != null ? toCents(filter.getMinPrice(), RoundingMode.CEILING) : Long.MIN_VALUE;
+        var maxPrice = filter.getMaxPrice() != null ? toCents(filter.getMaxPrice(), RoundingMode.FLOOR) : Long.MAX_VALUE;
+        var bounds = config.getPriceBuckets().stream()
+            .mapToLong(bound -> toCents(bound, RoundingMode.HALF_UP))
+            .toArray();
+
+        lock.readLock().lock();
+        try {
+            var categoryMask = categoryMask(filter.getCategoryIds());
+            var matches = new BitSet(size);
+            var categoryCounts = new int[256];
+            var bucketCounts = new int[bounds.length + 1];
+
+            // Each facet is counted with every filter applied except its own,
+            // so the client can show how many results picking another value
+            // of that facet would give.
+            for (var position = live.nextSetBit(0); position >= 0; position = live.nextSetBit(position + 1)) {
+                var price = prices[position];
+                var inPriceRange = price >= minPrice && price <= maxPrice;
+                var inCategory = categoryMask == null || categoryMask.get(position);
+
+                if (inPriceRange) {
+                    categoryCounts[categoryIds[position] & 0xFF]++;
+                }
+                if (inCategory) {
+                    bucketCounts[bucket(price, bounds)]++;
+                }
+                if (inPriceRange && inCategory) {
+                    matches.set(position);
+                }
+            }
+
+            var positions = switch (filter.getSort()) {
+                case ID -> pageById(matches, cursor, pageSize + 1);
+                case PRICE_ASC, PRICE_DESC -> pageByPrice(matches, cursor, pageSize + 1, filter.getSort());
+            };
+
+            String nextCursor = null;
+            if (positions.size() > pageSize) {
+                positions = positions.subList(0, pageSize);
+                var last = positions.get(pageSize - 1);
+                nextCursor = filter.getSort() == ProductSort.ID
+                    ? ProductCursor.encode(ids[last])
+                    : ProductCursor.encode(prices[last], ids[last]);
+            }
+
+            var pageIds = positions.stream().map(position -> ids[position]).toList();
+            var facets = new ProductFacetsDto(
+                matches.cardinality(),
+                categoryFacets(categoryCounts),
+                priceFacets(bucketCounts)
+            );
+            return new ProductFacetPage(pageIds, nextCursor, facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Integer> pageById(BitSet matches, String cursor, int limit) {
+        var start = 0;
+        if (cursor != null) {
+            var afterId = ProductCursor.decode(cursor);
+            var found = Arrays.binarySearch(ids, 0, size, afterId);
+            start = found >= 0 ? found + 1 : -found - 1;
+        }
+
+        var positions = new ArrayList<Integer>(limit);
+        for (var position = matches.nextSetBit(start);
+             position >= 0 && positions.size() < limit;
+             position = matches.nextSetBit(position + 1)) {
+            positions.add(position);
+        }
+        return positions;
+    }
+
+    private List<Integer> pageByPrice(BitSet matches, String cursor, int limit, ProductSort sort) {
+        var order = priceOrder();
+        var ascending = sort == ProductSort.PRICE_ASC;
+
+        int index;
+        if (cursor == null) {
+            index = ascending ? 0 : order.length - 1;
+        } else {
+            var key = ProductCursor.decodeKeyed(cursor);
+            // First entry strictly after the cursor in ascending order, or
+            // the last one strictly before it when walking backwards.
+            var after = firstAfter(order, key[0], key[1], ascending);
+            index = ascending ? after : after - 1;
+        }
+
+        var step = ascending ? 1 : -1;
+        var positions = new ArrayList<Integer>(limit);
+        for (; index >= 0 && index < order.length && positions.size() < limit; index += step) {
+            if (matches.get(order[index])) {
+                positions.add(order[index]);
+            }
+        }
+        return positions;
+    }
+
+    private int firstAfter(int[] order, long price, long id, boolean strictlyGreater) {
+        var low = 0;
+        var high = order.length;
+        while (low < high) {
+            var middle = (low + high) >>> 1;
+            var comparison = compare(order[middle], price, id);
+            if (comparison < 0 || (strictlyGreater && comparison == 0)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int compare(int position, long price, long id) {
+        var comparison = Long.compare(prices[position], price);
+        return comparison != 0 ? comparison : Long.compare(ids[position], id);
+    }
+
+    // Called under the read lock: concurrent readers may each build the same
+    // ordering, but no writer can change the columns while they do.
+    private int[] priceOrder() {
+        var order = priceOrder;
+        if (order == null) {
+            order = live.stream()
+                .boxed()
+                .sorted(Comparator.<Integer>comparingLong(position -> prices[position])
+                    .thenComparingLong(position -> ids[position]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+            priceOrder = order;
+        }
+        return order;
+    }
+
+    private BitSet categoryMask(Set<Byte> categoryIds) {
+        if (categoryIds == null || categoryIds.isEmpty()) {
+            return null;
+        }
+
+        var mask = new BitSet(size);
+        categoryIds.forEach(categoryId -> {
+            var bits = categories.get(categoryId);
+            if (bits != null) {
+                mask.or(bits);
+            }
+        });
+        return mask;
+    }
+
+    private Map<Byte, Integer> categoryFacets(int[] counts) {
+        var facets = new TreeMap<Byte, Integer>();
+        for (var i = 0; i < counts.length; i++) {
+            var categoryId = (byte) i;
+            if (counts[i] > 0 && categoryId != NO_CATEGORY) {
+                facets.put(categoryId, counts[i]);
+            }
+        }
+        return facets;
+    }
+
+    private List<PriceBucketDto> priceFacets(int[] counts) {
+        var bounds = config.getPriceBuckets();
+        return IntStream.range(0, counts.length)
+            .mapToObj(i -> new PriceBucketDto(
+                i == 0 ? BigDecimal.ZERO : bounds.get(i - 1),
+                i < bounds.size() ? bounds.get(i) : null,
+                counts[i]
+            ))
+            .toList();
+    }
+
+    private int insert(int position, long id) {
+        if (size == ids.length) {
+            var capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            categoryIds = Arrays.copyOf(categoryIds, capacity);
+        }
+
+        // Ids are generated in increasing order, so this is almost always an
+        // append; an out-of-order id shifts the columns to keep them sorted.
+        if (position < size) {
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            System.arraycopy(prices, position, prices, position + 1, size - position);
+            System.arraycopy(categoryIds, position, categoryIds, position + 1, size - position);
+            live = shift(live, position);
+            categories.replaceAll((categoryId, bits) -> shift(bits, position));
+        }
+
+        ids[position] = id;
+        size++;
+        return position;
+    }
+
+    private BitSet categoryBits(byte categoryId) {
+        return categories.computeIfAbsent(categoryId, key -> new BitSet());
+    }
+
+    private static BitSet shift(BitSet bits, int from) {
+        var shifted = bits.get(0, from);
+        for (var i = bits.nextSetBit(from); i >= 0; i = bits.nextSetBit(i + 1)) {
+            shifted.set(i + 1);
+        }
+        return shifted;
+    }
+
+    private static int bucket(long price, long[] bounds) {
+        var bucket = 0;
+        while (bucket < bounds.length && price >= bounds[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private static long toCents(BigDecimal amount, RoundingMode roundingMode) {
+        if (amount == null) {
+            return 0;
+        }
+        return amount.movePointRight(2).setScale(0, roundingMode).longValue();
+    }
+}
@@ -0,0 +1,14 @@
+package com.ghassenebenslimene.store.products;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@AllArgsConstructor
+@Getter
+public class ProductFacetPage {
+    private List<Long> productIds;
+    private String nextCursor;
+    private ProductFacetsDto facets;
+}
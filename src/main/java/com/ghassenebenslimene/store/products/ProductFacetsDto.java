@@ -0,0 +1,15 @@
+package com.ghassenebenslimene.store.products;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@AllArgsConstructor
+@Data
+public class ProductFacetsDto {
+    private int total;
+    private Map<Byte, Integer> categories;
+    private List<PriceBucketDto> prices;
+}
@@ -0,0 +1,16 @@
+package com.ghassenebenslimene.store.products;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+@AllArgsConstructor
+@Getter
+public class ProductFilter {
+    private Set<Byte> categoryIds;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private ProductSort sort;
+}
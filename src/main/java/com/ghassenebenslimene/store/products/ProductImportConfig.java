@@ -0,0 +1,16 @@
+package com.ghassenebenslimene.store.products;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "catalog.import")
+@Data
+public class ProductImportConfig {
+    private int batchSize = 1000;
+    private int maxReportedErrors = 1000;
+    // Longest CSV record or NDJSON line, in characters. Longer rows are
+    // reported as errors without being held in memory.
+    private int maxRowLength = 65_536;
+}
@@ -0,0 +1,11 @@
+package com.ghassenebenslimene.store.products;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@AllArgsConstructor
+@Data
+public class ProductImportErrorDto {
+    private long line;
+    private String error;
+}
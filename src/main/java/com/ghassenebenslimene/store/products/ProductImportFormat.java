@@ -0,0 +1,6 @@
+package com.ghassenebenslimene.store.products;
+
+public enum ProductImportFormat {
+    CSV,
+    NDJSON
+}
@@ -0,0 +1,13 @@
+package com.ghassenebenslimene.store.products;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ProductImportResultDto {
+    private int imported;
+    private int failed;
+    private List<ProductImportErrorDto> errors = new ArrayList<>();
+}
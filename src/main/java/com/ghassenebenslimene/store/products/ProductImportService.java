@@ -0,0 +1,292 @@
+package com.ghassenebenslimene.store.products;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streams a supplier feed into the products table. Rows are parsed one at a
+ * time and written with JDBC batch inserts, so memory use is bounded by the
+ * batch size rather than the size of the feed.
+ */
+@AllArgsConstructor
+@Service
+public class ProductImportService {
+    private static final String INSERT_SQL =
+        "INSERT INTO products (name, price, description, category_id, version, updated_at) " +
+        "VALUES (?, ?, ?, ?, 0, ?)";
+    private static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CategoryRepository categoryRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductImportConfig config;
+
+    public ProductImportResultDto importProducts(InputStream input, ProductImportFormat format) throws IOException {
+        var categories = StreamSupport.stream(categoryRepository.findAll().spliterator(), false)
+            .collect(Collectors.toMap(Category::getId, Function.identity()));
+
+        var result = new ProductImportResultDto();
+        var batch = new ArrayList<Product>(config.getBatchSize());
+        var batchLines = new ArrayList<Long>(config.getBatchSize());
+
+        var reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        var rows = format == ProductImportFormat.CSV
+            ? new CsvRows(reader, config.getMaxRowLength())
+            : new NdjsonRows(reader, config.getMaxRowLength());
+
+        Row row;
+        while ((row = rows.next()) != null) {
+            if (row.error() != null) {
+                reportError(result, row.line(), row.error());
+                continue;
+            }
+
+            try {
+                batch.add(toProduct(row.product(), categories));
+                batchLines.add(row.line());
+            } catch (IllegalArgumentException e) {
+                reportError(result, row.line(), e.getMessage());
+                continue;
+            }
+
+            if (batch.size() == config.getBatchSize()) {
+                insertBatch(batch, batchLines, result);
+            }
+        }
+        insertBatch(batch, batchLines, result);
+
+        return result;
+    }
+
+    private void insertBatch(List<Product> batch, List<Long> batchLines, ProductImportResultDto result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            var keyHolder = new GeneratedKeyHolder();
+            var now = Timestamp.from(Instant.now());
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int i) throws SQLException {
+                        var product = batch.get(i);
+                        statement.setString(1, product.getName());
+                        statement.setBigDecimal(2, product.getPrice());
+                        statement.setString(3, product.getDescription());
+                        statement.setByte(4, product.getCategory().getId());
+                        statement.setTimestamp(5, now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return batch.size();
+                    }
+                },
+                keyHolder));
+
+            var keys = keyHolder.getKeyList();
+            for (var i = 0; i < batch.size(); i++) {
+                var product = batch.get(i);
+                product.setId(((Number) keys.get(i).values().iterator().next()).longValue());
+                product.setVersion(0L);
+                product.setUpdatedAt(now.toInstant());
+            }
+
+            result.setImported(result.getImported() + batch.size());
+            eventPublisher.publishEvent(new ProductsSavedEvent(List.copyOf(batch)));
+        } catch (DataAccessException e) {
+            var message = "Batch insert failed: " + e.getMostSpecificCause().getMessage();
+            batchLines.forEach(line -> reportError(result, line, message));
+        }
+
+        batch.clear();
+        batchLines.clear();
+    }
+
+    private Product toProduct(ProductDto row, Map<Byte, Category> categories) {
+        if (row.getName() == null || row.getName().isBlank()) {
+            throw new IllegalArgumentException("Name is required.");
+        }
+        if (row.getName().length() > 255) {
+            throw new IllegalArgumentException("Name must be at most 255 characters.");
+        }
+        if (row.getPrice() == null || row.getPrice().signum() < 0 || row.getPrice().compareTo(MAX_PRICE) > 0) {
+            throw new IllegalArgumentException("Price must be between 0 and " + MAX_PRICE + ".");
+        }
+        if (row.getPrice().stripTrailingZeros().scale() > 2) {
+            throw new IllegalArgumentException("Price must have at most two decimals.");
+        }
+
+        var category = categories.get(row.getCategoryId());
+        if (category == null) {
+            throw new IllegalArgumentException("Unknown category: " + row.getCategoryId());
+        }
+
+        return Product.builder()
+            .name(row.getName())
+            .price(row.getPrice())
+            .description(row.getDescription() != null ? row.getDescription() : "")
+            .category(category)
+            .build();
+    }
+
+    private void reportError(ProductImportResultDto result, long line, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < config.getMaxReportedErrors()) {
+            result.getErrors().add(new ProductImportErrorDto(line, message));
+        }
+    }
+
+    private record Row(long line, ProductDto product, String error) {
+    }
+
+    private interface Rows {
+        /** Returns the next row, or null at the end of input. */
+        Row next() throws IOException;
+    }
+
+    private final class NdjsonRows implements Rows {
+        private final BufferedReader reader;
+        private final int maxLineLength;
+        private final StringBuilder text = new StringBuilder();
+        private long line;
+
+        private NdjsonRows(BufferedReader reader, int maxLineLength) {
+            this.reader = reader;
+            this.maxLineLength = maxLineLength;
+        }
+
+        @Override
+        public Row next() throws IOException {
+            int length;
+            while ((length = readLine()) != -1) {
+                line++;
+                if (length > maxLineLength) {
+                    return new Row(line, null, "Line is longer than " + maxLineLength + " characters");
+                }
+                if (text.toString().isBlank()) {
+                    continue;
+                }
+                try {
+                    return new Row(line, objectMapper.readValue(text.toString(), ProductDto.class), null);
+                } catch (JsonProcessingException e) {
+                    return new Row(line, null, "Malformed JSON: " + e.getOriginalMessage());
+                }
+            }
+            return null;
+        }
+
+        // Reads the next line into text, keeping at most maxLineLength
+        // characters, and returns its full length, or -1 at the end of input.
+        private int readLine() throws IOException {
+            text.setLength(0);
+            var length = 0;
+            int c;
+            while ((c = reader.read()) != -1 && c != '\n') {
+                if (++length <= maxLineLength) {
+                    text.append((char) c);
+                }
+            }
+            if (c == -1 && length == 0) {
+                return -1;
+            }
+            if (length <= maxLineLength && !text.isEmpty() && text.charAt(text.length() - 1) == '\r') {
+                text.setLength(text.length() - 1);
+                length--;
+            }
+            return length;
+        }
+    }
+
+    private static final class CsvRows implements Rows {
+        private final CsvRecordReader reader;
+        private Map<String, Integer> columns;
+
+        private CsvRows(BufferedReader reader, int maxRecordLength) {
+            this.reader = new CsvRecordReader(reader, maxRecordLength);
+        }
+
+        @Override
+        public Row next() throws IOException {
+            if (columns == null) {
+                List<String> header;
+                try {
+                    header = reader.read();
+                } catch (CsvRecordReader.MalformedRecordException e) {
+                    // Without a header no row can be read: each is reported.
+                    columns = Map.of();
+                    return new Row(reader.getRecordLine(), null, "Invalid header: " + e.getMessage());
+                }
+                if (header == null) {
+                    return null;
+                }
+                columns = new HashMap<>();
+                for (var i = 0; i < header.size(); i++) {
+                    columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+                }
+            }
+
+            List<String> record;
+            try {
+                record = reader.read();
+            } catch (CsvRecordReader.MalformedRecordException e) {
+                return new Row(reader.getRecordLine(), null, e.getMessage());
+            }
+            if (record == null) {
+                return null;
+            }
+
+            var product = new ProductDto();
+            product.setName(column(record, "name"));
+            product.setDescription(column(record, "description"));
+
+            var price = column(record, "price");
+            var categoryId = column(record, "categoryid");
+            try {
+                product.setPrice(price != null ? new BigDecimal(price.trim()) : null);
+            } catch (NumberFormatException e) {
+                return new Row(reader.getRecordLine(), null, "Invalid price: " + price);
+            }
+            try {
+                product.setCategoryId(categoryId != null ? Byte.valueOf(categoryId.trim()) : null);
+            } catch (NumberFormatException e) {
+                return new Row(reader.getRecordLine(), null, "Invalid category: " + categoryId);
+            }
+
+            return new Row(reader.getRecordLine(), product, null);
+        }
+
+        private String column(List<String> record, String name) {
+            var index = columns.get(name);
+            return index != null && index < record.size() ? record.get(index) : null;
+        }
+    }
+}
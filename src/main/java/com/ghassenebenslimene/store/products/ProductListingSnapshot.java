@@ -0,0 +1,12 @@
+package com.ghassenebenslimene.store.products;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public class ProductListingSnapshot {
+    private long catalogVersion;
+    private byte[] json;
+    private byte[] gzip;
+}
@@ -0,0 +1,102 @@
+package com.ghassenebenslimene.store.products;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pre-rendered first page of the default product listing, for the whole
+ * catalog and for each category, kept as JSON bytes plus a gzip variant.
+ * That page is the same for every visitor, so serving the bytes skips the
+ * query, the mapping and the serialisation. Snapshots are rebuilt in the
+ * background shortly after products change, and are only served while they
+ * match the current catalog version.
+ */
+@RequiredArgsConstructor
+@Component
+public class ProductListingSnapshots {
+    private static final Duration REBUILD_DELAY = Duration.ofMillis(500);
+
+    private final ProductService productService;
+    private final CategoryRepository categoryRepository;
+    private final CatalogVersionService catalogVersionService;
+    private final ObjectMapper objectMapper;
+    private final TaskScheduler taskScheduler;
+
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    // Keyed by category id; the null key holds the unfiltered listing.
+    private volatile Map<Byte, ProductListingSnapshot> snapshots = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        requestRebuild();
+    }
+
+    @EventListener
+    public void onProductsSaved(ProductsSavedEvent event) {
+        requestRebuild();
+    }
+
+    @EventListener
+    public void onProductDeleted(ProductDeletedEvent event) {
+        requestRebuild();
+    }
+
+    public Optional<ProductListingSnapshot> get(Byte categoryId, long catalogVersion) {
+        var snapshot = snapshots.get(categoryId);
+        if (snapshot == null || snapshot.getCatalogVersion() != catalogVersion) {
+            return Optional.empty();
+        }
+        return Optional.of(snapshot);
+    }
+
+    // A burst of writes, such as a bulk import, collapses into one rebuild.
+    void requestRebuild() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            taskScheduler.schedule(this::rebuild, Instant.now().plus(REBUILD_DELAY));
+        }
+    }
+
+    void rebuild() {
+        rebuildPending.set(false);
+
+        // The version is read before rendering: a write that lands midway
+        // leaves these snapshots labelled with an older version, so they are
+        // not served until the rebuild that write schedules.
+        var catalogVersion = catalogVersionService.getCurrentVersion().getVersion();
+        var rebuilt = new HashMap<Byte, ProductListingSnapshot>();
+        rebuilt.put(null, render(null, catalogVersion));
+        categoryRepository.findAll().forEach(category ->
+            rebuilt.put(category.getId(), render(category.getId(), catalogVersion)));
+
+        snapshots = rebuilt;
+    }
+
+    private ProductListingSnapshot render(Byte categoryId, long catalogVersion) {
+        var page = productService.getProducts(categoryId, null, ProductService.DEFAULT_PAGE_SIZE, false);
+        try {
+            var json = objectMapper.writeValueAsBytes(page);
+            var compressed = new ByteArrayOutputStream(json.length / 4);
+            try (var gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(json);
+            }
+            return new ProductListingSnapshot(catalogVersion, json, compressed.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
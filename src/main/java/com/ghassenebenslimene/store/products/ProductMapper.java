@@ -4,13 +4,24 @@ import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 
+import java.util.List;
+
 @Mapper(componentModel = "spring")
 public interface ProductMapper {
     @Mapping(target = "categoryId", source = "category.id")
     ProductDto toDto(Product product);
 
+    List<ProductDto> toDtos(List<Product> products);
+
+    @Mapping(target = "description", ignore = true)
+    ProductDto toDto(ProductSummary summary);
+
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
     Product toEntity(ProductDto productDto);
 
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
     void update(ProductDto productDto, @MappingTarget Product product);
 }
@@ -0,0 +1,20 @@
+package com.ghassenebenslimene.store.products;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@AllArgsConstructor
+@Data
+public class ProductPageDto {
+    private List<ProductDto> items;
+    private String nextCursor;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private ProductFacetsDto facets;
+
+    public ProductPageDto(List<ProductDto> items, String nextCursor) {
+        this(items, nextCursor, null);
+    }
+}
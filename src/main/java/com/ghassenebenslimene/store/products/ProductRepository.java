@@ -1,16 +1,64 @@
 package com.ghassenebenslimene.store.products;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
+    // Cached instances are shared between requests, so they must be treated
+    // as read-only. Write paths load through findWithCategoryById instead.
+    @Cacheable(cacheNames = CatalogCaches.PRODUCTS, key = "#p0", unless = "#result == null")
+    @Override
+    Optional<Product> findById(Long id);
+
+    @EntityGraph(attributePaths = "category")
+    Optional<Product> findWithCategoryById(Long id);
+
     @EntityGraph(attributePaths = "category")
-    List<Product> findByCategoryId(Byte categoryId);
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 
     @EntityGraph(attributePaths = "category")
-    @Query("SELECT p FROM Product p")
-    List<Product> findAllWithCategory();
-}
\ No newline at end of file
+    List<Product> findByCategoryIdAndIdGreaterThanOrderByIdAsc(Byte categoryId, Long id, Limit limit);
+
+    @Query("SELECT p.id AS id, p.name AS name, p.price AS price, p.category.id AS categoryId " +
+           "FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<ProductSummary> findSummaries(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("SELECT p.id AS id, p.name AS name, p.price AS price, p.category.id AS categoryId " +
+           "FROM Product p WHERE p.category.id = :categoryId AND p.id > :afterId ORDER BY p.id")
+    List<ProductSummary> findSummariesByCategoryId(
+        @Param("categoryId") Byte categoryId, @Param("afterId") Long afterId, Limit limit);
+
+    @EntityGraph(attributePaths = "category")
+    List<Product> findByIdIn(Collection<Long> ids);
+
+    @Query("SELECT p.id AS id, p.name AS name, p.price AS price, p.category.id AS categoryId " +
+           "FROM Product p WHERE p.id IN :ids")
+    List<ProductSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category c " +
+           "WHERE :categoryId IS NULL OR c.id = :categoryId ORDER BY p.id")
+    Stream<Product> streamAll(@Param("categoryId") Byte categoryId);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT p.id AS id, p.name AS name, p.price AS price, p.category.id AS categoryId " +
+           "FROM Product p WHERE :categoryId IS NULL OR p.category.id = :categoryId ORDER BY p.id")
+    Stream<ProductSummary> streamSummaries(@Param("categoryId") Byte categoryId);
+}
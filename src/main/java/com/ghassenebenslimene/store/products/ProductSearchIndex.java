@@ -0,0 +1,226 @@
+package com.ghassenebenslimene.store.products;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over product names and descriptions, ranked with
+ * BM25F (name matches weigh more than description matches). The index is
+ * loaded once at startup and kept current from product write events, so
+ * searches never touch the database.
+ */
+@RequiredArgsConstructor
+@Component
+public class ProductSearchIndex {
+    private static final double K1 = 1.2;
+    private static final double NAME_WEIGHT = 3.0;
+    private static final double NAME_B = 0.5;
+    private static final double DESCRIPTION_WEIGHT = 1.0;
+    private static final double DESCRIPTION_B = 0.75;
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is",
+        "it", "of", "on", "or", "per", "the", "to", "with", "no"
+    );
+
+    private final ProductService productService;
+    private final ProductMapper productMapper;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Map<Long, Posting>> postings = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private long totalNameLength;
+    private long totalDescriptionLength;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        productService.streamProducts(null, true, this::put);
+    }
+
+    @EventListener
+    public void onProductsSaved(ProductsSavedEvent event) {
+        event.getProducts().forEach(product -> put(productMapper.toDto(product)));
+    }
+
+    @EventListener
+    public void onProductDeleted(ProductDeletedEvent event) {
+        remove(event.getProductId());
+    }
+
+    public void put(ProductDto product) {
+        var nameTerms = tokenize(product.getName());
+        var descriptionTerms = tokenize(product.getDescription());
+
+        // Results are rendered from the index; descriptions are only needed
+        // for scoring, so they are not kept.
+        var summary = new ProductDto();
+        summary.setId(product.getId());
+        summary.setName(product.getName());
+        summary.setPrice(product.getPrice());
+        summary.setCategoryId(product.getCategoryId());
+
+        var document = new Document(summary, nameTerms.size(), descriptionTerms.size(), new HashSet<>());
+
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(product.getId());
+
+            nameTerms.forEach(term -> posting(term, product.getId(), document).nameFrequency++);
+            descriptionTerms.forEach(term -> posting(term, product.getId(), document).descriptionFrequency++);
+
+            documents.put(product.getId(), document);
+            totalNameLength += document.nameLength;
+            totalDescriptionLength += document.descriptionLength;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public ProductSearchResultDto search(String query, int page, int size) {
+        page = Math.max(0, page);
+        size = Math.max(1, Math.min(size, ProductService.MAX_PAGE_SIZE));
+        var terms = new LinkedHashSet<>(tokenize(query));
+
+        lock.readLock().lock();
+        try {
+            if (terms.isEmpty() || documents.isEmpty()) {
+                return new ProductSearchResultDto(List.of(), 0, page, size);
+            }
+
+            var documentCount = documents.size();
+            var averageNameLength = Math.max(1.0, (double) totalNameLength / documentCount);
+            var averageDescriptionLength = Math.max(1.0, (double) totalDescriptionLength / documentCount);
+
+            var scores = new HashMap<Long, Double>();
+            for (var term : terms) {
+                var termPostings = postings.get(term);
+                if (termPostings == null) {
+                    continue;
+                }
+
+                var idf = Math.log(1 + (documentCount - termPostings.size() + 0.5) / (termPostings.size() + 0.5));
+                termPostings.forEach((productId, posting) -> {
+                    var document = documents.get(productId);
+                    var frequency =
+                        NAME_WEIGHT * posting.nameFrequency
+                            / (1 - NAME_B + NAME_B * document.nameLength / averageNameLength)
+                        + DESCRIPTION_WEIGHT * posting.descriptionFrequency
+                            / (1 - DESCRIPTION_B + DESCRIPTION_B * document.descriptionLength / averageDescriptionLength);
+                    scores.merge(productId, idf * frequency / (K1 + frequency), Double::sum);
+                });
+            }
+
+            var limit = (int) Math.min(Integer.MAX_VALUE, (long) page * size + size);
+            var items = topMatches(scores, limit).stream()
+                .skip((long) page * size)
+                .map(productId -> documents.get(productId).summary)
+                .toList();
+
+            return new ProductSearchResultDto(items, scores.size(), page, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+
+        var normalized = COMBINING_MARKS
+            .matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+            .replaceAll("")
+            .toLowerCase(Locale.ROOT);
+
+        var tokens = new ArrayList<String>();
+        for (var token : NON_WORD.split(normalized)) {
+            if (token.length() < 2 || STOP_WORDS.contains(token)) {
+                continue;
+            }
+            tokens.add(stem(token));
+        }
+        return tokens;
+    }
+
+    // Folds simple English plurals so "apples" matches "apple".
+    private static String stem(String token) {
+        if (token.length() > 4 && token.endsWith("ies")) {
+            return token.substring(0, token.length() - 3) + "y";
+        }
+        if (token.length() > 3 && token.endsWith("s") && !token.endsWith("ss")) {
+            return token.substring(0, token.length() - 1);
+        }
+        return token;
+    }
+
+    private static List<Long> topMatches(Map<Long, Double> scores, int limit) {
+        Comparator<Map.Entry<Long, Double>> ranking = Map.Entry.<Long, Double>comparingByValue()
+            .reversed()
+            .thenComparing(Map.Entry.comparingByKey());
+
+        // Keep only the best `limit` entries in a min-heap rather than
+        // sorting every match.
+        var heap = new PriorityQueue<Map.Entry<Long, Double>>(ranking.reversed());
+        for (var entry : scores.entrySet()) {
+            heap.offer(entry);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+
+        var top = new ArrayList<>(heap);
+        top.sort(ranking);
+        return top.stream().map(Map.Entry::getKey).toList();
+    }
+
+    private Posting posting(String term, Long productId, Document document) {
+        document.terms.add(term);
+        return postings
+            .computeIfAbsent(term, key -> new HashMap<>())
+            .computeIfAbsent(productId, key -> new Posting());
+    }
+
+    private void removeUnlocked(Long productId) {
+        var document = documents.remove(productId);
+        if (document == null) {
+            return;
+        }
+
+        totalNameLength -= document.nameLength;
+        totalDescriptionLength -= document.descriptionLength;
+        for (var term : document.terms) {
+            var termPostings = postings.get(term);
+            termPostings.remove(productId);
+            if (termPostings.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private static final class Posting {
+        private int nameFrequency;
+        private int descriptionFrequency;
+    }
+
+    private record Document(ProductDto summary, int nameLength, int descriptionLength, Set<String> terms) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.ghassenebenslimene.store.products;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@AllArgsConstructor
+@Data
+public class ProductSearchResultDto {
+    private List<ProductDto> items;
+    private int total;
+    private int page;
+    private int size;
+}
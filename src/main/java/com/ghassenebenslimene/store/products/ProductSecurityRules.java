@@ -12,6 +12,7 @@ public class ProductSecurityRules implements SecurityRules {
     @Override
     public void configure(AuthorizeHttpRequestsConfigurer<HttpSecurity>.AuthorizationManagerRequestMatcherRegistry registry) {
         registry.requestMatchers(HttpMethod.GET, "/products/**").permitAll()
+                .requestMatchers(HttpMethod.POST, "/products/batch").permitAll()
                 .requestMatchers(HttpMethod.POST, "/products/**").hasRole(Role.ADMIN.name())
                 .requestMatchers(HttpMethod.PUT, "/products/**").hasRole(Role.ADMIN.name())
                 .requestMatchers(HttpMethod.DELETE, "/products/**").hasRole(Role.ADMIN.name());
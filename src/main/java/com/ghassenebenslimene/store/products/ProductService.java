@@ -0,0 +1,148 @@
+package com.ghassenebenslimene.store.products;
+
+import jakarta.persistence.EntityManager;
+import lombok.AllArgsConstructor;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@AllArgsConstructor
+@Service
+public class ProductService {
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int MAX_BATCH_SIZE = 200;
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final EntityManager entityManager;
+    private final ProductFacetIndex productFacetIndex;
+    private final CacheManager cacheManager;
+
+    public ProductPageDto getProducts(Byte categoryId, String cursor, int limit, boolean includeDescription) {
+        var afterId = cursor != null ? ProductCursor.decode(cursor) : 0L;
+        var pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        // Fetch one extra row so we know whether there is a next page
+        // without issuing a separate count query.
+        var rowLimit = Limit.of(pageSize + 1);
+        List<ProductDto> products;
+        if (includeDescription) {
+            var entities = categoryId != null
+                ? productRepository.findByCategoryIdAndIdGreaterThanOrderByIdAsc(categoryId, afterId, rowLimit)
+                : productRepository.findByIdGreaterThanOrderByIdAsc(afterId, rowLimit);
+            products = entities.stream().map(productMapper::toDto).toList();
+        } else {
+            var summaries = categoryId != null
+                ? productRepository.findSummariesByCategoryId(categoryId, afterId, rowLimit)
+                : productRepository.findSummaries(afterId, rowLimit);
+            products = summaries.stream().map(productMapper::toDto).toList();
+        }
+
+        String nextCursor = null;
+        if (products.size() > pageSize) {
+            products = products.subList(0, pageSize);
+            nextCursor = ProductCursor.encode(products.get(pageSize - 1).getId());
+        }
+
+        return new ProductPageDto(products, nextCursor);
+    }
+
+    public ProductPageDto browseProducts(ProductFilter filter, String cursor, int limit, boolean includeDescription) {
+        var pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        var page = productFacetIndex.query(filter, cursor, pageSize);
+        if (page.getProductIds().isEmpty()) {
+            return new ProductPageDto(List.of(), null, page.getFacets());
+        }
+
+        // The index decides which products are on the page and in what
+        // order; the rows themselves are loaded with a single IN query.
+        Map<Long, ProductDto> productsById;
+        if (includeDescription) {
+            productsById = productRepository.findByIdIn(page.getProductIds()).stream()
+                .map(productMapper::toDto)
+                .collect(Collectors.toMap(ProductDto::getId, Function.identity()));
+        } else {
+            productsById = productRepository.findSummariesByIdIn(page.getProductIds()).stream()
+                .map(productMapper::toDto)
+                .collect(Collectors.toMap(ProductDto::getId, Function.identity()));
+        }
+
+        var products = page.getProductIds().stream()
+            .map(productsById::get)
+            .filter(Objects::nonNull)
+            .toList();
+
+        return new ProductPageDto(products, page.getNextCursor(), page.getFacets());
+    }
+
+    public ProductBatchDto getProductsByIds(List<Long> ids) {
+        var requestedIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (requestedIds.size() > MAX_BATCH_SIZE) {
+            throw new InvalidProductFilterException("At most " + MAX_BATCH_SIZE + " ids can be requested at once");
+        }
+
+        // Serve what we can from the product cache that backs findById and
+        // load the rest with one IN query, warming the cache on the way.
+        var cache = cacheManager.getCache(CatalogCaches.PRODUCTS);
+        var productsById = new HashMap<Long, Product>();
+        var uncachedIds = new ArrayList<Long>();
+        for (var id : requestedIds) {
+            var cached = cache != null ? cache.get(id, Product.class) : null;
+            if (cached != null) {
+                productsById.put(id, cached);
+            } else {
+                uncachedIds.add(id);
+            }
+        }
+
+        if (!uncachedIds.isEmpty()) {
+            productRepository.findByIdIn(uncachedIds).forEach(product -> {
+                productsById.put(product.getId(), product);
+                if (cache != null) {
+                    cache.put(product.getId(), product);
+                }
+            });
+        }
+
+        var found = new ArrayList<Product>();
+        var missing = new ArrayList<Long>();
+        for (var id : requestedIds) {
+            var product = productsById.get(id);
+            if (product != null) {
+                found.add(product);
+            } else {
+                missing.add(id);
+            }
+        }
+
+        return new ProductBatchDto(productMapper.toDtos(found), missing);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamProducts(Byte categoryId, boolean includeDescription, Consumer<ProductDto> consumer) {
+        if (!includeDescription) {
+            try (var summaries = productRepository.streamSummaries(categoryId)) {
+                summaries.forEach(summary -> consumer.accept(productMapper.toDto(summary)));
+            }
+            return;
+        }
+
+        try (var products = productRepository.streamAll(categoryId)) {
+            products.forEach(product -> {
+                consumer.accept(productMapper.toDto(product));
+                entityManager.detach(product);
+            });
+        }
+    }
+}
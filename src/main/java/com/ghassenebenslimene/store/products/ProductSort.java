@@ -0,0 +1,26 @@
+package com.ghassenebenslimene.store.products;
+
+import java.util.Arrays;
+
+public enum ProductSort {
+    ID("id"),
+    PRICE_ASC("price"),
+    PRICE_DESC("-price");
+
+    private final String param;
+
+    ProductSort(String param) {
+        this.param = param;
+    }
+
+    public static ProductSort fromParam(String param) {
+        if (param == null) {
+            return ID;
+        }
+
+        return Arrays.stream(values())
+            .filter(sort -> sort.param.equals(param))
+            .findFirst()
+            .orElseThrow(() -> new InvalidProductFilterException("Invalid sort: " + param));
+    }
+}
@@ -0,0 +1,14 @@
+package com.ghassenebenslimene.store.products;
+
+import java.math.BigDecimal;
+
+/**
+ * Listing projection: only the columns a catalog page renders, without the
+ * LONGTEXT description or the category entity.
+ */
+public interface ProductSummary {
+    Long getId();
+    String getName();
+    BigDecimal getPrice();
+    Byte getCategoryId();
+}
@@ -0,0 +1,16 @@
+package com.ghassenebenslimene.store.products;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Published after products have been created or updated, so in-memory
+ * catalog structures can refresh without going back to the database.
+ */
+@AllArgsConstructor
+@Getter
+public class ProductsSavedEvent {
+    private List<Product> products;
+}
@@ -0,0 +1,4 @@
+-- Serves the order history keyset (customer_id, created_at desc, id desc):
+-- InnoDB appends the primary key to secondary indexes.
+create index orders_customer_created_at_index
+    on orders (customer_id, created_at);
@@ -0,0 +1,10 @@
+create table order_views
+(
+    order_id    bigint   not null
+        primary key,
+    customer_id bigint   not null,
+    body        longtext not null,
+    constraint order_views_orders_id_fk
+        foreign key (order_id) references orders (id)
+            on delete cascade
+);
@@ -0,0 +1,27 @@
+create table sales_rollups
+(
+    sales_day     date        not null,
+    status        varchar(20) not null,
+    dimension     varchar(10) not null,
+    dimension_id  bigint      not null,
+    order_count   bigint      not null,
+    unit_count    bigint      not null,
+    revenue_cents bigint      not null,
+    primary key (sales_day, status, dimension, dimension_id)
+);
+
+create index sales_rollups_dimension_status_day_index
+    on sales_rollups (dimension, status, sales_day);
+
+-- Status each order is currently counted under in sales_rollups; null until
+-- the order has been rolled up.
+alter table orders
+    add rollup_status varchar(20) null;
+
+-- Category each line is rolled up under, fixed when the order is placed.
+alter table order_items
+    add category_id tinyint null;
+
+update order_items oi
+    join products p on p.id = oi.product_id
+set oi.category_id = p.category_id;
@@ -0,0 +1,2 @@
+alter table orders
+    add payment_session_id varchar(255) null;
@@ -0,0 +1,17 @@
+create table checkout_idempotency_keys
+(
+    id              bigint auto_increment
+        primary key,
+    customer_id     bigint        not null,
+    idempotency_key varchar(255)  not null,
+    cart_id         binary(16)    not null,
+    order_id        bigint        null,
+    checkout_url    varchar(2048) null,
+    created_at      datetime(3)   not null,
+    expires_at      datetime(3)   not null,
+    constraint checkout_idempotency_keys_customer_key_unique
+        unique (customer_id, idempotency_key)
+);
+
+create index checkout_idempotency_keys_expires_at_index
+    on checkout_idempotency_keys (expires_at);
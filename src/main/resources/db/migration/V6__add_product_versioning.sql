@@ -0,0 +1,14 @@
+alter table products
+    add version    bigint      default 0                    not null,
+    add updated_at datetime(3) default current_timestamp(3) not null;
+
+create table catalog_versions
+(
+    id         tinyint                                  not null
+        primary key,
+    version    bigint      default 0                    not null,
+    updated_at datetime(3) default current_timestamp(3) not null
+);
+
+insert into catalog_versions (id, version)
+values (1, 0);
@@ -0,0 +1,30 @@
+create table product_stock
+(
+    product_id bigint not null
+        primary key,
+    quantity   int    not null,
+    constraint product_stock_products_id_fk
+        foreign key (product_id) references products (id)
+            on delete cascade,
+    constraint product_stock_quantity_check
+        check (quantity >= 0)
+);
+
+create table stock_reservations
+(
+    id         bigint auto_increment
+        primary key,
+    order_id   bigint      not null,
+    product_id bigint      not null,
+    quantity   int         not null,
+    expires_at datetime(3) not null,
+    constraint stock_reservations_products_id_fk
+        foreign key (product_id) references products (id)
+            on delete cascade
+);
+
+create index stock_reservations_order_id_index
+    on stock_reservations (order_id);
+
+create index stock_reservations_expires_at_index
+    on stock_reservations (expires_at);
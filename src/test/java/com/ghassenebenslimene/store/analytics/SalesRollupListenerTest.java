@@ -0,0 +1,57 @@
+package com.ghassenebenslimene.store.analytics;
+
+import com.ghassenebenslimene.store.orders.Order;
+import com.ghassenebenslimene.store.orders.OrderPlacedEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SalesRollupListenerTest {
+    @Mock
+    private SalesRollupService salesRollupService;
+
+    @InjectMocks
+    private SalesRollupListener salesRollupListener;
+
+    @Test
+    void failingOrderIsDroppedWithoutHoldingBackTheOthers() {
+        Set<Long> synced = new HashSet<>();
+        when(salesRollupService.sync(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> orderIds = invocation.getArgument(0);
+            if (orderIds.contains(3L)) {
+                throw new IllegalStateException("order 3 is broken");
+            }
+            synced.addAll(orderIds);
+            return orderIds.size();
+        });
+        for (long orderId = 1; orderId <= 6; orderId++) {
+            salesRollupListener.onOrderPlaced(new OrderPlacedEvent(order(orderId)));
+        }
+
+        salesRollupListener.syncPending();
+
+        assertThat(synced).containsExactlyInAnyOrder(1L, 2L, 4L, 5L, 6L);
+        clearInvocations(salesRollupService);
+        salesRollupListener.syncPending();
+        verifyNoInteractions(salesRollupService);
+    }
+
+    private static Order order(long orderId) {
+        var order = new Order();
+        order.setId(orderId);
+        return order;
+    }
+}
@@ -0,0 +1,177 @@
+package com.ghassenebenslimene.store.analytics;
+
+import com.ghassenebenslimene.store.common.Money;
+import com.ghassenebenslimene.store.orders.Order;
+import com.ghassenebenslimene.store.orders.OrderItem;
+import com.ghassenebenslimene.store.orders.OrderPlacedEvent;
+import com.ghassenebenslimene.store.orders.OrderRepository;
+import com.ghassenebenslimene.store.orders.PaymentStatus;
+import com.ghassenebenslimene.store.products.Category;
+import com.ghassenebenslimene.store.products.CategoryRepository;
+import com.ghassenebenslimene.store.products.Product;
+import com.ghassenebenslimene.store.products.ProductRepository;
+import com.ghassenebenslimene.store.users.Role;
+import com.ghassenebenslimene.store.users.User;
+import com.ghassenebenslimene.store.users.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Not @Transactional: each sync commits in its own transaction.
+@SpringBootTest
+@ActiveProfiles("test")
+class SalesRollupServiceIntegrationTest {
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private SalesRollupListener salesRollupListener;
+
+    @Autowired
+    private SalesRollupRepository salesRollupRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User customer;
+    private Category category;
+    private Product shirt;
+    private Product mug;
+
+    @BeforeEach
+    void setUp() {
+        customer = new User();
+        customer.setName("Analytics");
+        customer.setEmail("analytics@example.com");
+        customer.setPassword("secret");
+        customer.setRole(Role.USER);
+        customer = userRepository.save(customer);
+
+        category = categoryRepository.save(new Category("Rollups"));
+        shirt = product("Shirt", "20.00", category);
+        mug = product("Mug", "7.50", null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        salesRollupRepository.deleteAll();
+        orderRepository.deleteAll();
+        productRepository.deleteAll(List.of(shirt, mug));
+        categoryRepository.delete(category);
+        userRepository.delete(customer);
+    }
+
+    @Test
+    void backfillRollsUpExistingOrdersOnce() {
+        order(PaymentStatus.PAID, shirt, 2, mug, 1);
+        order(PaymentStatus.PAID, shirt, 1, null, 0);
+        order(PaymentStatus.PENDING, mug, 4, null, 0);
+
+        assertThat(salesRollupService.backfill()).isEqualTo(3);
+        assertThat(salesRollupService.backfill()).isZero();
+
+        var today = LocalDate.now();
+        var daily = salesRollupService.getDailySales(PaymentStatus.PAID, today.minusDays(1), today);
+        assertThat(daily).containsExactly(
+            new DailySalesDto(today.minusDays(1), 0, 0, new BigDecimal("0.00")),
+            new DailySalesDto(today, 2, 4, new BigDecimal("67.50"))
+        );
+
+        assertThat(salesRollupService.getBreakdown(SalesDimension.CATEGORY, PaymentStatus.PAID, today, today, 10))
+            .containsExactly(
+                new SalesBreakdownDto(category.getId().longValue(), 2, 3, new BigDecimal("60.00")),
+                new SalesBreakdownDto(0L, 1, 1, new BigDecimal("7.50"))
+            );
+        assertThat(salesRollupService.getBreakdown(SalesDimension.PRODUCT, PaymentStatus.PENDING, today, today, 10))
+            .containsExactly(new SalesBreakdownDto(mug.getId(), 1, 4, new BigDecimal("30.00")));
+    }
+
+    @Test
+    void statusChangeMovesTheOrderBetweenStatuses() {
+        var order = order(PaymentStatus.PENDING, shirt, 3, null, 0);
+        assertThat(salesRollupService.sync(List.of(order.getId()))).isEqualTo(1);
+
+        order.setStatus(PaymentStatus.PAID);
+        orderRepository.save(order);
+        assertThat(salesRollupService.sync(List.of(order.getId()))).isEqualTo(1);
+        assertThat(salesRollupService.sync(List.of(order.getId()))).isZero();
+
+        var today = LocalDate.now();
+        assertThat(salesRollupService.getDailySales(PaymentStatus.PENDING, today, today))
+            .containsExactly(new DailySalesDto(today, 0, 0, new BigDecimal("0.00")));
+        assertThat(salesRollupService.getDailySales(PaymentStatus.PAID, today, today))
+            .containsExactly(new DailySalesDto(today, 1, 3, new BigDecimal("60.00")));
+    }
+
+    @Test
+    void ordersStayUnderTheCategoryTheyWerePlacedIn() {
+        var order = order(PaymentStatus.PAID, shirt, 2, null, 0);
+        assertThat(salesRollupService.sync(List.of(order.getId()))).isEqualTo(1);
+
+        shirt.setCategory(null);
+        shirt = productRepository.save(shirt);
+        order.setStatus(PaymentStatus.CANCELED);
+        orderRepository.save(order);
+        assertThat(salesRollupService.sync(List.of(order.getId()))).isEqualTo(1);
+
+        var today = LocalDate.now();
+        assertThat(salesRollupService.getBreakdown(SalesDimension.CATEGORY, PaymentStatus.PAID, today, today, 10))
+            .allSatisfy(total -> assertThat(total.getOrders()).isZero());
+        assertThat(salesRollupService.getBreakdown(SalesDimension.CATEGORY, PaymentStatus.CANCELED, today, today, 10))
+            .containsExactly(new SalesBreakdownDto(category.getId().longValue(), 1, 2, new BigDecimal("40.00")));
+    }
+
+    @Test
+    void placedOrdersAreSyncedByTheScheduledJobNotTheEvent() {
+        var order = order(PaymentStatus.PENDING, mug, 2, null, 0);
+
+        salesRollupListener.onOrderPlaced(new OrderPlacedEvent(order));
+        var today = LocalDate.now();
+        assertThat(salesRollupService.getDailySales(PaymentStatus.PENDING, today, today))
+            .containsExactly(new DailySalesDto(today, 0, 0, new BigDecimal("0.00")));
+
+        salesRollupListener.syncPending();
+        assertThat(salesRollupService.getDailySales(PaymentStatus.PENDING, today, today))
+            .containsExactly(new DailySalesDto(today, 1, 2, new BigDecimal("15.00")));
+    }
+
+    private Product product(String name, String price, Category category) {
+        var product = new Product();
+        product.setName(name);
+        product.setPrice(new BigDecimal(price));
+        product.setCategory(category);
+        return productRepository.save(product);
+    }
+
+    private Order order(PaymentStatus status, Product first, int firstQuantity, Product second, int secondQuantity) {
+        var order = new Order();
+        order.setCustomer(customer);
+        order.setStatus(status);
+        order.getItems().add(new OrderItem(order, first, firstQuantity));
+        if (second != null) {
+            order.getItems().add(new OrderItem(order, second, secondQuantity));
+        }
+        order.setTotalPrice(order.getItems().stream()
+            .map(OrderItem::getTotalPrice)
+            .reduce(Money.ZERO, Money::plus));
+        return orderRepository.save(order);
+    }
+}
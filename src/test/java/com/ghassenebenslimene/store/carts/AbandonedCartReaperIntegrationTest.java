@@ -0,0 +1,118 @@
+package com.ghassenebenslimene.store.carts;
+
+import com.ghassenebenslimene.store.products.Product;
+import com.ghassenebenslimene.store.products.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class AbandonedCartReaperIntegrationTest {
+    @Autowired
+    private AbandonedCartReaper reaper;
+
+    @Autowired
+    private CartReaperConfig config;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final List<UUID> oldCarts = new ArrayList<>();
+    private UUID recentCart;
+
+    @BeforeEach
+    void setUp() {
+        config.setChunkSize(2);
+        config.setPause(Duration.ZERO);
+
+        var product = new Product();
+        product.setName("Hammer");
+        product.setDescription("Steel hammer");
+        product.setPrice(BigDecimal.valueOf(25));
+        productRepository.save(product);
+
+        for (var i = 0; i < 5; i++) {
+            var cartId = createCart(LocalDate.now().minusDays(60 + i));
+            cartService.addToCart(cartId, product.getId());
+            oldCarts.add(cartId);
+        }
+        recentCart = createCart(LocalDate.now().minusDays(1));
+        cartService.addToCart(recentCart, product.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        var defaults = new CartReaperConfig();
+        config.setChunkSize(defaults.getChunkSize());
+        config.setPause(defaults.getPause());
+        config.setDryRun(defaults.isDryRun());
+    }
+
+    @Test
+    void reapDeletesOldCartsAndTheirItemsInChunks() {
+        var chunksBefore = meterRegistry.timer("carts.reaper.chunk").count();
+
+        var reaped = reaper.reap();
+
+        assertThat(reaped).isEqualTo(5);
+        assertThat(cartRepository.findAllById(oldCarts)).isEmpty();
+        assertThat(cartRepository.findById(recentCart)).isPresent();
+        assertThat(itemCount(oldCarts)).isZero();
+        assertThat(itemCount(List.of(recentCart))).isEqualTo(1);
+        // 2 + 2 + 1
+        assertThat(meterRegistry.timer("carts.reaper.chunk").count() - chunksBefore).isEqualTo(3);
+    }
+
+    @Test
+    void dryRunCountsWithoutDeleting() {
+        config.setDryRun(true);
+
+        var reaped = reaper.reap();
+
+        assertThat(reaped).isEqualTo(5);
+        assertThat(cartRepository.findAllById(oldCarts)).hasSize(5);
+        assertThat(itemCount(oldCarts)).isEqualTo(5);
+    }
+
+    private UUID createCart(LocalDate dateCreated) {
+        var cartId = cartRepository.saveAndFlush(new Cart()).getId();
+        jdbcTemplate.update("UPDATE carts SET date_created = ? WHERE id = ?", dateCreated, cartId);
+        return cartId;
+    }
+
+    private long itemCount(List<UUID> cartIds) {
+        return cartIds.stream()
+            .mapToLong(cartId -> jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM cart_items WHERE cart_id = ?", Long.class, cartId))
+            .sum();
+    }
+}
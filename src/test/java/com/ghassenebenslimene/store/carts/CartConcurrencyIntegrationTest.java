@@ -0,0 +1,124 @@
+package com.ghassenebenslimene.store.carts;
+
+import com.ghassenebenslimene.store.products.Category;
+import com.ghassenebenslimene.store.products.CategoryRepository;
+import com.ghassenebenslimene.store.products.Product;
+import com.ghassenebenslimene.store.products.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Not @Transactional: every cart mutation has to commit on its own thread
+// for the version checks to race.
+@SpringBootTest(properties = "carts.retry.max-attempts=50")
+@ActiveProfiles("test")
+class CartConcurrencyIntegrationTest {
+    private static final int THREADS = 16;
+    private static final int OPERATIONS_PER_THREAD = 25;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private Category category;
+    private Product added;
+    private Product updated;
+
+    @BeforeEach
+    void setUp() {
+        category = categoryRepository.save(new Category("Tools"));
+        added = productRepository.save(product("Hammer"));
+        updated = productRepository.save(product("Wrench"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        cartRepository.deleteAll();
+        productRepository.delete(added);
+        productRepository.delete(updated);
+        categoryRepository.delete(category);
+    }
+
+    @Test
+    void concurrentMutationsOfOneCartLoseNoUpdates() throws Exception {
+        var cartId = cartService.createCart().getId();
+        cartService.addToCart(cartId, updated.getId());
+        var versionBefore = cartRepository.findById(cartId).orElseThrow().getVersion();
+
+        var executor = Executors.newFixedThreadPool(THREADS);
+        var start = new CountDownLatch(1);
+        var adds = new AtomicInteger();
+        var writes = new AtomicInteger();
+        var futures = new ArrayList<Future<?>>();
+
+        // Half the threads add units of one product through the upsert, the
+        // other half overwrite the quantity of another line, which is a
+        // read-modify-write of the whole cart.
+        for (var thread = 0; thread < THREADS; thread++) {
+            var adder = thread % 2 == 0;
+            var quantity = thread + 1;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (var i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    if (adder) {
+                        cartService.addToCart(cartId, added.getId());
+                        adds.incrementAndGet();
+                    } else {
+                        cartService.updateItem(cartId, updated.getId(), quantity);
+                    }
+                    writes.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (var future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        var cart = cartService.getCart(cartId);
+        assertThat(cart.getItems()).hasSize(2);
+        assertThat(cart.getItems()).filteredOn(item -> item.getProduct().getId().equals(added.getId()))
+            .singleElement()
+            .satisfies(item -> assertThat(item.getQuantity()).isEqualTo(adds.get()));
+        assertThat(cart.getItems()).filteredOn(item -> item.getProduct().getId().equals(updated.getId()))
+            .singleElement()
+            .satisfies(item -> assertThat(item.getQuantity()).isIn(Set.of(2, 4, 6, 8, 10, 12, 14, 16)));
+        // Every committed mutation bumped the version exactly once.
+        assertThat(cartRepository.findById(cartId).orElseThrow().getVersion() - versionBefore)
+            .isEqualTo(writes.get());
+    }
+
+    private Product product(String name) {
+        var product = new Product();
+        product.setName(name);
+        product.setDescription(name);
+        product.setPrice(BigDecimal.TEN);
+        product.setCategory(category);
+        return product;
+    }
+}
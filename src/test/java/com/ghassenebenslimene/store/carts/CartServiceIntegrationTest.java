@@ -0,0 +1,138 @@
+package com.ghassenebenslimene.store.carts;
+
+import com.ghassenebenslimene.store.products.Category;
+import com.ghassenebenslimene.store.products.CategoryRepository;
+import com.ghassenebenslimene.store.products.Product;
+import com.ghassenebenslimene.store.products.ProductNotFoundException;
+import com.ghassenebenslimene.store.products.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class CartServiceIntegrationTest {
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        var category = categoryRepository.save(new Category("Tools"));
+
+        product = new Product();
+        product.setName("Hammer");
+        product.setDescription("Steel hammer");
+        product.setPrice(BigDecimal.valueOf(25));
+        product.setCategory(category);
+        productRepository.save(product);
+    }
+
+    @Test
+    void addToCartInsertsThenIncrementsOneRow() {
+        var cartId = cartService.createCart().getId();
+
+        var first = cartService.addToCart(cartId, product.getId());
+        var second = cartService.addToCart(cartId, product.getId());
+
+        assertThat(first.getQuantity()).isEqualTo(1);
+        assertThat(second.getQuantity()).isEqualTo(2);
+        assertThat(second.getTotalPrice()).isEqualByComparingTo("50");
+        assertThat(second.getProduct().getId()).isEqualTo(product.getId());
+
+        entityManager.clear();
+        var cart = cartRepository.getCartWithItems(cartId).orElseThrow();
+        assertThat(cart.getItems()).hasSize(1);
+        assertThat(cart.getItem(product.getId()).getQuantity()).isEqualTo(2);
+    }
+
+    @Test
+    void addToCartRejectsUnknownCartAndProduct() {
+        var cartId = cartService.createCart().getId();
+
+        assertThatThrownBy(() -> cartService.addToCart(UUID.randomUUID(), product.getId()))
+                .isInstanceOf(CartNotFoundException.class);
+        assertThatThrownBy(() -> cartService.addToCart(cartId, -1L))
+                .isInstanceOf(ProductNotFoundException.class);
+    }
+
+    @Test
+    void updateItemsAppliesAllOperationsInOneUpdate() {
+        var other = new Product();
+        other.setName("Wrench");
+        other.setDescription("Adjustable wrench");
+        other.setPrice(BigDecimal.valueOf(10));
+        other.setCategory(product.getCategory());
+        productRepository.save(other);
+
+        var cartId = cartService.createCart().getId();
+        cartService.addToCart(cartId, product.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        var cart = cartService.updateItems(cartId, List.of(
+            operation(other.getId(), 3),
+            operation(product.getId(), 0),
+            operation(other.getId(), 4)
+        ));
+
+        assertThat(cart.getItems()).singleElement().satisfies(item -> {
+            assertThat(item.getProduct().getId()).isEqualTo(other.getId());
+            assertThat(item.getQuantity()).isEqualTo(4);
+        });
+        assertThat(cart.getTotalPrice()).isEqualByComparingTo("40");
+
+        entityManager.flush();
+        entityManager.clear();
+        var stored = cartRepository.getCartWithItems(cartId).orElseThrow();
+        assertThat(stored.getItems()).hasSize(1);
+        assertThat(stored.getItem(other.getId()).getQuantity()).isEqualTo(4);
+    }
+
+    @Test
+    void updateItemsRejectsUnknownProductsBeforeTouchingTheCart() {
+        var cartId = cartService.createCart().getId();
+        cartService.addToCart(cartId, product.getId());
+        entityManager.clear();
+
+        assertThatThrownBy(() -> cartService.updateItems(cartId, List.of(
+            operation(product.getId(), 5),
+            operation(-1L, 1)
+        ))).isInstanceOf(ProductNotFoundException.class);
+
+        assertThat(cartService.getCart(cartId).getItems()).singleElement()
+            .satisfies(item -> assertThat(item.getQuantity()).isEqualTo(1));
+    }
+
+    private static CartItemOperation operation(Long productId, int quantity) {
+        var operation = new CartItemOperation();
+        operation.setProductId(productId);
+        operation.setQuantity(quantity);
+        return operation;
+    }
+}
@@ -0,0 +1,64 @@
+package com.ghassenebenslimene.store.carts;
+
+import com.ghassenebenslimene.store.products.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CartServiceTest {
+    @Mock
+    private CartStore cartStore;
+
+    @Mock
+    private CartMapper cartMapper;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Spy
+    private CartRetryConfig retryConfig = new CartRetryConfig();
+
+    @InjectMocks
+    private CartService cartService;
+
+    @Test
+    void versionConflictIsRetried() {
+        var cartId = UUID.randomUUID();
+        var conflict = new ObjectOptimisticLockingFailureException(Cart.class, cartId);
+
+        when(cartStore.update(eq(cartId), any()))
+            .thenThrow(conflict)
+            .thenThrow(conflict)
+            .thenReturn(null);
+
+        cartService.clearCart(cartId);
+
+        verify(cartStore, times(3)).update(eq(cartId), any());
+    }
+
+    @Test
+    void exhaustedRetriesSurfaceAsConflict() {
+        var cartId = UUID.randomUUID();
+        when(cartStore.update(eq(cartId), any()))
+            .thenThrow(new ObjectOptimisticLockingFailureException(Cart.class, cartId));
+
+        assertThatThrownBy(() -> cartService.removeItem(cartId, 1L))
+            .isInstanceOf(CartConflictException.class);
+
+        verify(cartStore, times(retryConfig.getMaxAttempts())).update(eq(cartId), any());
+    }
+}
@@ -0,0 +1,62 @@
+package com.ghassenebenslimene.store.carts;
+
+import com.ghassenebenslimene.store.common.Money;
+import com.ghassenebenslimene.store.products.Product;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CartTest {
+    @Test
+    void totalFollowsEveryChange() {
+        var cart = new Cart();
+        var hammer = product(1L, "12.50");
+        var wrench = product(2L, "3.99");
+
+        cart.addItem(hammer);
+        cart.addItem(hammer);
+        cart.addItem(wrench);
+        assertThat(cart.getTotalPrice()).isEqualTo(Money.of("28.99"));
+
+        cart.getItem(wrench.getId()).setQuantity(10);
+        assertThat(cart.getTotalPrice()).isEqualTo(Money.of("64.90"));
+
+        cart.removeItem(hammer.getId());
+        assertThat(cart.getItem(hammer.getId())).isNull();
+        assertThat(cart.getTotalPrice()).isEqualTo(Money.of("39.90"));
+
+        cart.clear();
+        assertThat(cart.isEmpty()).isTrue();
+        assertThat(cart.getTotalPrice()).isEqualTo(Money.ZERO);
+    }
+
+    @Test
+    void indexIsBuiltFromItemsSetDirectly() {
+        var source = new Cart();
+        source.addItem(product(1L, "2.00"));
+        source.getItem(1L).setQuantity(3);
+
+        // As when Hibernate loads a cart or the write-behind store swaps
+        // the item set.
+        var cart = new Cart();
+        var items = new LinkedHashSet<>(source.getItems());
+        items.forEach(item -> item.setCart(cart));
+        cart.setItems(items);
+
+        assertThat(cart.getItem(1L).getQuantity()).isEqualTo(3);
+        assertThat(cart.getTotalPrice()).isEqualTo(Money.of("6.00"));
+
+        cart.getItem(1L).setQuantity(1);
+        assertThat(cart.getTotalPrice()).isEqualTo(Money.of("2.00"));
+    }
+
+    private static Product product(Long id, String price) {
+        var product = new Product();
+        product.setId(id);
+        product.setPrice(new BigDecimal(price));
+        return product;
+    }
+}
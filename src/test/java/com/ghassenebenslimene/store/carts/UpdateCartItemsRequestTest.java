@@ -0,0 +1,26 @@
+package com.ghassenebenslimene.store.carts;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UpdateCartItemsRequestTest {
+    @Test
+    void tooManyItemsAreRejectedWithTheConfiguredLimit() {
+        var operation = new CartItemOperation();
+        operation.setProductId(1L);
+        operation.setQuantity(1);
+        var request = new UpdateCartItemsRequest();
+        request.setItems(Collections.nCopies(CartService.MAX_BULK_ITEMS + 1, operation));
+
+        try (var factory = Validation.buildDefaultValidatorFactory()) {
+            assertThat(factory.getValidator().validate(request))
+                .extracting(ConstraintViolation::getMessage)
+                .containsExactly("At most " + CartService.MAX_BULK_ITEMS + " items can be updated at once.");
+        }
+    }
+}
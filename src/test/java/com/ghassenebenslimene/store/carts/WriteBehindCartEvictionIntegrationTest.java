@@ -0,0 +1,131 @@
+package com.ghassenebenslimene.store.carts;
+
+import com.ghassenebenslimene.store.products.Category;
+import com.ghassenebenslimene.store.products.CategoryRepository;
+import com.ghassenebenslimene.store.products.Product;
+import com.ghassenebenslimene.store.products.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Far more carts than the store keeps, so carts are evicted between, and
+// while, they are loaded and changed. Evicted dirty carts are written by
+// early flushes running alongside the changes.
+@SpringBootTest(properties = {
+    "carts.store=write-behind",
+    "carts.write-behind.flush-interval-ms=3600000",
+    "carts.write-behind.max-carts=2"
+})
+@ActiveProfiles("test")
+class WriteBehindCartEvictionIntegrationTest {
+    private static final int CARTS = 12;
+    private static final int ADDS_PER_CART = 5;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private WriteBehindCartStore cartStore;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private Category category;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        category = categoryRepository.save(new Category("Tools"));
+
+        product = new Product();
+        product.setName("Chisel");
+        product.setDescription("Wood chisel");
+        product.setPrice(BigDecimal.valueOf(12));
+        product.setCategory(category);
+        product = productRepository.save(product);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cartStore.flushDirtyCarts();
+        cartRepository.deleteAll();
+        productRepository.delete(product);
+        categoryRepository.delete(category);
+    }
+
+    @Test
+    void changesToEvictedCartsAreKeptAndWritten() {
+        var cartIds = createCarts();
+        for (var i = 0; i < ADDS_PER_CART; i++) {
+            cartIds.forEach(cartId -> cartService.addToCart(cartId, product.getId()));
+        }
+
+        assertQuantities(cartIds);
+    }
+
+    @Test
+    void concurrentChangesToEvictedCartsAreKeptAndWritten() throws Exception {
+        var cartIds = createCarts();
+        var executor = Executors.newFixedThreadPool(CARTS);
+        var start = new CountDownLatch(1);
+        var futures = new ArrayList<Future<?>>();
+        for (var cartId : cartIds) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (var i = 0; i < ADDS_PER_CART; i++) {
+                    cartService.addToCart(cartId, product.getId());
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (var future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertQuantities(cartIds);
+    }
+
+    private List<UUID> createCarts() {
+        var cartIds = new ArrayList<UUID>();
+        for (var i = 0; i < CARTS; i++) {
+            cartIds.add(cartService.createCart().getId());
+        }
+        return cartIds;
+    }
+
+    private void assertQuantities(List<UUID> cartIds) {
+        for (var cartId : cartIds) {
+            assertThat(cartService.getCart(cartId).getItems()).singleElement()
+                .satisfies(item -> assertThat(item.getQuantity()).isEqualTo(ADDS_PER_CART));
+        }
+
+        cartStore.flushDirtyCarts();
+        for (var cartId : cartIds) {
+            assertThat(cartRepository.getCartWithItems(cartId).orElseThrow().getItems()).singleElement()
+                .satisfies(item -> assertThat(item.getQuantity()).isEqualTo(ADDS_PER_CART));
+        }
+    }
+}
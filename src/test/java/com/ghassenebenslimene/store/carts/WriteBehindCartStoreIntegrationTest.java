@@ -0,0 +1,121 @@
+package com.ghassenebenslimene.store.carts;
+
+import com.ghassenebenslimene.store.products.Category;
+import com.ghassenebenslimene.store.products.CategoryRepository;
+import com.ghassenebenslimene.store.products.Product;
+import com.ghassenebenslimene.store.products.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+    "carts.store=write-behind",
+    "carts.write-behind.flush-interval-ms=3600000"
+})
+@ActiveProfiles("test")
+class WriteBehindCartStoreIntegrationTest {
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private WriteBehindCartStore cartStore;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private Category category;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        category = categoryRepository.save(new Category("Tools"));
+
+        product = new Product();
+        product.setName("Hammer");
+        product.setDescription("Steel hammer");
+        product.setPrice(BigDecimal.valueOf(25));
+        product.setCategory(category);
+        product = productRepository.save(product);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cartRepository.deleteAll();
+        productRepository.delete(product);
+        categoryRepository.delete(category);
+    }
+
+    @Test
+    void changesAreServedFromMemoryAndWrittenOnFlush() {
+        var cartId = cartService.createCart().getId();
+
+        cartService.addToCart(cartId, product.getId());
+        cartService.addToCart(cartId, product.getId());
+        cartService.updateItem(cartId, product.getId(), 5);
+
+        assertThat(cartService.getCart(cartId).getItems()).singleElement()
+            .satisfies(item -> assertThat(item.getQuantity()).isEqualTo(5));
+        assertThat(storedQuantity(cartId)).isNull();
+
+        cartStore.flushDirtyCarts();
+        assertThat(storedQuantity(cartId)).isEqualTo(5);
+
+        // A second flush updates the line inserted by the first one.
+        cartService.updateItem(cartId, product.getId(), 2);
+        cartStore.flushDirtyCarts();
+        assertThat(storedQuantity(cartId)).isEqualTo(2);
+
+        cartService.clearCart(cartId);
+        cartStore.flush(cartId);
+        assertThat(cartRepository.getCartWithItems(cartId).orElseThrow().getItems()).isEmpty();
+    }
+
+    @Test
+    void aCartDeletedBehindTheStoreIsDroppedWithoutBlockingOthers() {
+        var deletedId = cartService.createCart().getId();
+        var keptId = cartService.createCart().getId();
+        cartService.addToCart(deletedId, product.getId());
+        cartService.addToCart(keptId, product.getId());
+
+        // As the abandoned cart reaper would.
+        cartRepository.deleteById(deletedId);
+        var droppedBefore = meterRegistry.counter("carts.write-behind.dropped").count();
+
+        cartStore.flushDirtyCarts();
+        assertThat(meterRegistry.counter("carts.write-behind.dropped").count() - droppedBefore).isEqualTo(1);
+        assertThat(storedQuantity(keptId)).isEqualTo(1);
+        assertThat(cartRepository.findById(deletedId)).isEmpty();
+        assertThatThrownBy(() -> cartService.getCart(deletedId)).isInstanceOf(CartNotFoundException.class);
+
+        // The stale cart is no longer retried.
+        cartService.updateItem(keptId, product.getId(), 3);
+        cartStore.flushDirtyCarts();
+        assertThat(storedQuantity(keptId)).isEqualTo(3);
+    }
+
+    private Integer storedQuantity(UUID cartId) {
+        var cart = cartRepository.getCartWithItems(cartId).orElseThrow();
+        assertThat(cart.getItems()).hasSizeLessThanOrEqualTo(1);
+        var item = cart.getItem(product.getId());
+        return item != null ? item.getQuantity() : null;
+    }
+}
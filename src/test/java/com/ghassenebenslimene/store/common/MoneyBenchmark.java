@@ -0,0 +1,64 @@
+package com.ghassenebenslimene.store.common;
+
+import com.ghassenebenslimene.store.carts.Cart;
+import com.ghassenebenslimene.store.products.Product;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cart totals with Money against the BigDecimal arithmetic it replaced. Not a
+ * test: run the main method from the IDE, or with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.ghassenebenslimene.store.common.MoneyBenchmark}.
+ * The GC profiler reports gc.alloc.rate.norm, the bytes allocated per total.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MoneyBenchmark {
+    @Param({"10", "100", "1000"})
+    private int items;
+
+    private Cart cart;
+
+    @Setup
+    public void setUp() {
+        cart = new Cart();
+        for (var i = 0; i < items; i++) {
+            var product = new Product();
+            product.setId((long) i);
+            product.setPrice(BigDecimal.valueOf(100 + i * 37L, 2));
+            cart.addItem(product);
+            cart.getItem(product.getId()).setQuantity(1 + i % 5);
+        }
+    }
+
+    @Benchmark
+    public Money moneyTotal() {
+        return cart.getTotalPrice();
+    }
+
+    // The previous implementation of Cart.getTotalPrice.
+    @Benchmark
+    public BigDecimal bigDecimalTotal() {
+        return cart.getItems().stream()
+            .map(item -> item.getProduct().getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(MoneyBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+    }
+}
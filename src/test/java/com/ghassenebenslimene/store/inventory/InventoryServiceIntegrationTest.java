@@ -0,0 +1,171 @@
+package com.ghassenebenslimene.store.inventory;
+
+import com.ghassenebenslimene.store.common.Money;
+import com.ghassenebenslimene.store.orders.Order;
+import com.ghassenebenslimene.store.orders.OrderItem;
+import com.ghassenebenslimene.store.orders.OrderRepository;
+import com.ghassenebenslimene.store.orders.PaymentStatus;
+import com.ghassenebenslimene.store.products.Category;
+import com.ghassenebenslimene.store.products.CategoryRepository;
+import com.ghassenebenslimene.store.products.Product;
+import com.ghassenebenslimene.store.products.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Not @Transactional: reservations commit in their own transactions and the
+// concurrent checkouts run on separate threads.
+@SpringBootTest
+@ActiveProfiles("test")
+class InventoryServiceIntegrationTest {
+    private static final int STOCK = 50;
+    private static final int CHECKOUTS = 400;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryEventListener inventoryEventListener;
+
+    @Autowired
+    private ProductStockRepository productStockRepository;
+
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private Category category;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        category = categoryRepository.save(new Category("Flash sale"));
+
+        product = new Product();
+        product.setName("Limited edition");
+        product.setPrice(BigDecimal.TEN);
+        product.setCategory(category);
+        product = productRepository.save(product);
+
+        productStockRepository.save(new ProductStock(product.getId(), STOCK));
+    }
+
+    @AfterEach
+    void tearDown() {
+        stockReservationRepository.deleteAll();
+        productStockRepository.deleteAll();
+        productRepository.delete(product);
+        categoryRepository.delete(category);
+    }
+
+    @Test
+    void concurrentCheckoutsNeverOversell() throws Exception {
+        var executor = Executors.newFixedThreadPool(32);
+        var start = new CountDownLatch(1);
+        var reserved = new AtomicInteger();
+        var rejected = new AtomicInteger();
+        var futures = new ArrayList<Future<?>>();
+
+        for (long orderId = 1; orderId <= CHECKOUTS; orderId++) {
+            var order = order(orderId, 1);
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    inventoryService.reserve(order);
+                    reserved.incrementAndGet();
+                } catch (InsufficientStockException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (var future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertThat(reserved.get()).isEqualTo(STOCK);
+        assertThat(rejected.get()).isEqualTo(CHECKOUTS - STOCK);
+        assertThat(productStockRepository.findById(product.getId()).orElseThrow().getQuantity()).isZero();
+        assertThat(stockReservationRepository.count()).isEqualTo(STOCK);
+    }
+
+    @Test
+    void failedReservationLeavesNothingBehind() {
+        assertThatThrownBy(() -> inventoryService.reserve(order(1L, STOCK + 1)))
+            .isInstanceOf(InsufficientStockException.class);
+
+        assertThat(productStockRepository.findById(product.getId()).orElseThrow().getQuantity()).isEqualTo(STOCK);
+        assertThat(stockReservationRepository.count()).isZero();
+    }
+
+    @Test
+    void releaseAndExpiryRestoreStockOnce() {
+        inventoryService.reserve(order(1L, 5));
+        inventoryService.reserve(order(2L, 7));
+
+        inventoryService.release(1L);
+        inventoryService.release(1L);
+
+        var reservation = stockReservationRepository.findByOrderId(2L).get(0);
+        reservation.setExpiresAt(Instant.now().minusSeconds(1));
+        stockReservationRepository.save(reservation);
+        inventoryEventListener.releaseExpiredReservations();
+
+        assertThat(productStockRepository.findById(product.getId()).orElseThrow().getQuantity()).isEqualTo(STOCK);
+        assertThat(stockReservationRepository.count()).isZero();
+    }
+
+    @Test
+    void paidOrderWhoseStockIsGoneIsCountedAsOversold() {
+        var paid = new Order();
+        paid.setStatus(PaymentStatus.PAID);
+        paid.setTotalPrice(Money.of(BigDecimal.valueOf(50)));
+        paid.getItems().add(new OrderItem(paid, product, 5));
+        var orderId = orderRepository.save(paid).getId();
+        productStockRepository.save(new ProductStock(product.getId(), 2));
+        var oversoldBefore = meterRegistry.counter("inventory.oversold").count();
+
+        try {
+            inventoryService.confirm(orderId);
+        } finally {
+            orderRepository.deleteById(orderId);
+        }
+
+        assertThat(meterRegistry.counter("inventory.oversold").count() - oversoldBefore).isEqualTo(5);
+        assertThat(productStockRepository.findById(product.getId()).orElseThrow().getQuantity()).isEqualTo(2);
+    }
+
+    private Order order(long orderId, int quantity) {
+        var order = new Order();
+        order.setId(orderId);
+        order.getItems().add(new OrderItem(order, product, quantity));
+        return order;
+    }
+}
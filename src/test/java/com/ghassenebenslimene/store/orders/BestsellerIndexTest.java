@@ -0,0 +1,75 @@
+package com.ghassenebenslimene.store.orders;
+
+import com.ghassenebenslimene.store.products.ProductBatchDto;
+import com.ghassenebenslimene.store.products.ProductDto;
+import com.ghassenebenslimene.store.products.ProductService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BestsellerIndexTest {
+    private static final byte CATEGORY_ID = 7;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    @Mock
+    private ProductService productService;
+
+    @InjectMocks
+    private BestsellerIndex bestsellerIndex;
+
+    @Test
+    void bestsellersCarryTheBoundsOfTheirEstimatedSales() {
+        // Fills the category's sketch, so the last product takes over the
+        // counter of one it evicts.
+        for (long productId = 1; productId <= 200; productId++) {
+            bestsellerIndex.record(sale(productId, 1));
+        }
+        bestsellerIndex.record(sale(999L, 3));
+        when(productService.getProductsByIds(List.of(999L)))
+            .thenReturn(new ProductBatchDto(List.of(product(999L)), List.of()));
+
+        assertThat(bestsellerIndex.getBestsellers(CATEGORY_ID, 1)).singleElement().satisfies(bestseller -> {
+            assertThat(bestseller.getMinUnitsSold()).isEqualTo(3);
+            assertThat(bestseller.getMaxUnitsSold()).isEqualTo(4);
+        });
+    }
+
+    private static ProductSale sale(long productId, int quantity) {
+        return new ProductSale() {
+            @Override
+            public Long getProductId() {
+                return productId;
+            }
+
+            @Override
+            public Byte getCategoryId() {
+                return CATEGORY_ID;
+            }
+
+            @Override
+            public Integer getQuantity() {
+                return quantity;
+            }
+        };
+    }
+
+    private static ProductDto product(long productId) {
+        var product = new ProductDto();
+        product.setId(productId);
+        product.setName("Lamp");
+        product.setPrice(BigDecimal.TEN);
+        product.setCategoryId(CATEGORY_ID);
+        return product;
+    }
+}
@@ -0,0 +1,136 @@
+package com.ghassenebenslimene.store.orders;
+
+import com.ghassenebenslimene.store.auth.JwtService;
+import com.ghassenebenslimene.store.common.Money;
+import com.ghassenebenslimene.store.products.Product;
+import com.ghassenebenslimene.store.products.ProductRepository;
+import com.ghassenebenslimene.store.users.Role;
+import com.ghassenebenslimene.store.users.User;
+import com.ghassenebenslimene.store.users.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Not @Transactional: the export is written on an async thread, which only
+// sees committed rows. Authenticates with a real token, as the JWT filter
+// does not run again for the async dispatch that writes the body.
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OrderExportControllerIntegrationTest {
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 14);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User admin;
+    private Product product;
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        admin = new User();
+        admin.setName("Finance");
+        admin.setEmail("finance@example.com");
+        admin.setPassword("secret");
+        admin.setRole(Role.ADMIN);
+        userRepository.save(admin);
+
+        product = new Product();
+        product.setName("Lamp");
+        product.setPrice(new BigDecimal("30.00"));
+        productRepository.save(product);
+
+        order = new Order();
+        order.setCustomer(admin);
+        order.setStatus(PaymentStatus.PAID);
+        order.setCreatedAt(DAY.atTime(12, 0));
+        order.getItems().add(new OrderItem(order, product, 2));
+        order.setTotalPrice(Money.of(product.getPrice()).times(2));
+        orderRepository.save(order);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.delete(order);
+        productRepository.delete(product);
+        userRepository.delete(admin);
+    }
+
+    @Test
+    void streamsCsvThroughTheAsyncDispatch() throws Exception {
+        var result = mockMvc.perform(get("/admin/orders/export")
+                .param("from", DAY.toString())
+                .param("to", DAY.toString())
+                .header(HttpHeaders.AUTHORIZATION, bearer())
+                .accept("text/csv"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("text/csv"))
+            .andExpect(content().string(startsWith(OrderExportCsv.HEADER)))
+            .andExpect(content().string(containsString(order.getId() + ",")))
+            .andExpect(content().string(containsString("Lamp")));
+    }
+
+    @Test
+    void streamsNdjsonThroughTheAsyncDispatch() throws Exception {
+        var result = mockMvc.perform(get("/admin/orders/export")
+                .param("from", DAY.toString())
+                .param("to", DAY.toString())
+                .header(HttpHeaders.AUTHORIZATION, bearer())
+                .accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andExpect(content().string(containsString("\"orderId\":" + order.getId())));
+    }
+
+    @Test
+    void rejectsRequestsWithoutAdminToken() throws Exception {
+        mockMvc.perform(get("/admin/orders/export")
+                .param("from", DAY.toString())
+                .param("to", DAY.toString())
+                .accept("text/csv"))
+            .andExpect(status().isUnauthorized());
+    }
+
+    private String bearer() {
+        return "Bearer " + jwtService.generateAccessToken(admin);
+    }
+}
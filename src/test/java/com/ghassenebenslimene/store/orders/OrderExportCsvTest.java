@@ -0,0 +1,38 @@
+package com.ghassenebenslimene.store.orders;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderExportCsvTest {
+    @Test
+    void textThatWouldRunAsAFormulaIsPrefixed() throws IOException {
+        var row = new OrderExportRowDto();
+        row.setOrderId(1L);
+        row.setStatus("PAID");
+        row.setCustomerEmail("@sum@example.com");
+        row.setProductName("=HYPERLINK(\"http://evil\",\"Click\")");
+        row.setQuantity(1);
+        row.setLineTotal(new BigDecimal("-5.00"));
+
+        var csv = new StringWriter();
+        new OrderExportCsv(csv).write(row);
+
+        assertThat(csv.toString()).isEqualTo(
+            "1,,PAID,,'@sum@example.com,,,,\"'=HYPERLINK(\"\"http://evil\"\",\"\"Click\"\")\",1,,-5.00\r\n");
+    }
+
+    @Test
+    void onlyLeadingFormulaCharactersAreNeutralised() {
+        assertThat(OrderExportCsv.neutralised("+1 lamp")).isEqualTo("'+1 lamp");
+        assertThat(OrderExportCsv.neutralised("-5% off")).isEqualTo("'-5% off");
+        assertThat(OrderExportCsv.neutralised("\tTabbed")).isEqualTo("'\tTabbed");
+        assertThat(OrderExportCsv.neutralised("Lamp = light")).isEqualTo("Lamp = light");
+        assertThat(OrderExportCsv.neutralised("")).isEmpty();
+        assertThat(OrderExportCsv.neutralised(null)).isNull();
+    }
+}
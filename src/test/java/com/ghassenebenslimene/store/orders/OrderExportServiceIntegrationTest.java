@@ -0,0 +1,104 @@
+package com.ghassenebenslimene.store.orders;
+
+import com.ghassenebenslimene.store.common.Money;
+import com.ghassenebenslimene.store.products.Product;
+import com.ghassenebenslimene.store.products.ProductRepository;
+import com.ghassenebenslimene.store.users.Role;
+import com.ghassenebenslimene.store.users.User;
+import com.ghassenebenslimene.store.users.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class OrderExportServiceIntegrationTest {
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 14);
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User customer;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        customer = new User();
+        customer.setName("Finance");
+        customer.setEmail("finance@example.com");
+        customer.setPassword("secret");
+        customer.setRole(Role.USER);
+        userRepository.save(customer);
+
+        product = new Product();
+        product.setName("Desk, oak");
+        product.setPrice(new BigDecimal("120.00"));
+        productRepository.save(product);
+    }
+
+    @Test
+    void exportsOneRowPerItemForOrdersInRange() {
+        var withItems = order(DAY.atTime(9, 30), 2);
+        var withoutItems = order(DAY.atTime(23, 59, 59), 0);
+        order(DAY.minusDays(1).atTime(23, 59, 59), 1);
+        order(DAY.plusDays(1).atStartOfDay(), 1);
+
+        var rows = new ArrayList<OrderExportRowDto>();
+        orderExportService.exportOrders(DAY, DAY, rows::add);
+
+        assertThat(rows).extracting(OrderExportRowDto::getOrderId)
+            .containsExactly(withItems.getId(), withoutItems.getId());
+        assertThat(rows.get(0).getProductName()).isEqualTo("Desk, oak");
+        assertThat(rows.get(0).getQuantity()).isEqualTo(2);
+        assertThat(rows.get(0).getLineTotal()).isEqualByComparingTo("240.00");
+        assertThat(rows.get(0).getCustomerEmail()).isEqualTo("finance@example.com");
+        assertThat(rows.get(1).getItemId()).isNull();
+    }
+
+    @Test
+    void csvQuotesFieldsWithSeparators() throws Exception {
+        var row = new OrderExportRowDto();
+        row.setOrderId(7L);
+        row.setStatus("PAID");
+        row.setProductName("Desk, \"oak\"");
+        row.setLineTotal(new BigDecimal("240.00"));
+
+        var out = new StringWriter();
+        new OrderExportCsv(out).write(row);
+
+        assertThat(out.toString()).isEqualTo("7,,PAID,,,,,,\"Desk, \"\"oak\"\"\",,,240.00\r\n");
+    }
+
+    private Order order(LocalDateTime createdAt, int quantity) {
+        var order = new Order();
+        order.setCustomer(customer);
+        order.setStatus(PaymentStatus.PAID);
+        order.setCreatedAt(createdAt);
+        if (quantity > 0) {
+            order.getItems().add(new OrderItem(order, product, quantity));
+        }
+        order.setTotalPrice(Money.of(product.getPrice()).times(quantity));
+        return orderRepository.save(order);
+    }
+}
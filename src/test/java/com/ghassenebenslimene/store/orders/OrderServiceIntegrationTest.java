@@ -1,19 +1,27 @@
 package com.ghassenebenslimene.store.orders;
 
 import com.ghassenebenslimene.store.auth.AuthService;
+import com.ghassenebenslimene.store.common.Money;
+import com.ghassenebenslimene.store.products.Product;
+import com.ghassenebenslimene.store.products.ProductRepository;
 import com.ghassenebenslimene.store.users.Role;
 import com.ghassenebenslimene.store.users.User;
 import com.ghassenebenslimene.store.users.UserRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -33,6 +41,18 @@ class OrderServiceIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderViewService orderViewService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
     @MockitoBean
     private AuthService authService;
 
@@ -57,7 +77,7 @@ class OrderServiceIntegrationTest {
         var order = new Order();
         order.setCustomer(user);
         order.setStatus(PaymentStatus.PENDING);
-        order.setTotalPrice(BigDecimal.valueOf(10));
+        order.setTotalPrice(Money.of("10"));
         orderRepository.save(order);
 
         var dto = new OrderDto();
@@ -71,6 +91,38 @@ class OrderServiceIntegrationTest {
         assertThat(result.getId()).isEqualTo(order.getId());
     }
 
+    @Test
+    void viewRenderedOnReadDoesNotOverwriteANewerOne() {
+        var user = new User();
+        user.setName("Owner");
+        user.setEmail("owner@example.com");
+        user.setPassword("secret");
+        user.setRole(Role.USER);
+        userRepository.save(user);
+
+        var order = new Order();
+        order.setCustomer(user);
+        order.setStatus(PaymentStatus.PENDING);
+        order.setTotalPrice(Money.of("10"));
+        orderRepository.save(order);
+
+        var stale = new OrderDto();
+        stale.setId(order.getId());
+        stale.setStatus("PENDING");
+        when(orderMapper.toDto(any(Order.class))).thenReturn(stale);
+
+        // Written by a payment update after the read found no view.
+        var newer = "{\"id\":" + order.getId() + ",\"status\":\"PAID\"}";
+        jdbcTemplate.update("INSERT INTO order_views (order_id, customer_id, body) VALUES (?, ?, ?)",
+            order.getId(), user.getId(), newer);
+
+        var view = orderViewService.writeIfAbsent(order);
+
+        assertThat(view.getBody()).isEqualTo(newer);
+        assertThat(jdbcTemplate.queryForObject("SELECT body FROM order_views WHERE order_id = ?", String.class, order.getId()))
+            .isEqualTo(newer);
+    }
+
     @Test
     void getOrderRejectsNonOwner() {
         var owner = new User();
@@ -90,7 +142,7 @@ class OrderServiceIntegrationTest {
         var order = new Order();
         order.setCustomer(owner);
         order.setStatus(PaymentStatus.PENDING);
-        order.setTotalPrice(BigDecimal.valueOf(10));
+        order.setTotalPrice(Money.of("10"));
         orderRepository.save(order);
 
         when(authService.getCurrentUser()).thenReturn(other);
@@ -98,4 +150,56 @@ class OrderServiceIntegrationTest {
         assertThatThrownBy(() -> orderService.getOrder(order.getId()))
                 .isInstanceOf(AccessDeniedException.class);
     }
+
+    @Test
+    void getOrdersPagesNewestFirstWithSummaries() {
+        var user = new User();
+        user.setName("Owner");
+        user.setEmail("owner@example.com");
+        user.setPassword("secret");
+        user.setRole(Role.USER);
+        userRepository.save(user);
+
+        var product = new Product();
+        product.setName("Hammer");
+        product.setDescription("Steel hammer");
+        product.setPrice(BigDecimal.valueOf(25));
+        productRepository.save(product);
+
+        // Two orders share a timestamp, so the id has to break the tie.
+        var base = LocalDateTime.of(2024, 5, 1, 12, 0);
+        var createdAt = List.of(base, base.plusHours(1), base.plusHours(1), base.plusHours(2), base.plusHours(3));
+        var ids = new ArrayList<Long>();
+        for (var time : createdAt) {
+            var order = new Order();
+            order.setCustomer(user);
+            order.setStatus(PaymentStatus.PENDING);
+            order.setTotalPrice(Money.of("50"));
+            order.getItems().add(new OrderItem(order, product, 2));
+            orderRepository.saveAndFlush(order);
+            jdbcTemplate.update("UPDATE orders SET created_at = ? WHERE id = ?", time, order.getId());
+            ids.add(order.getId());
+        }
+        entityManager.clear();
+
+        when(authService.getCurrentUser()).thenReturn(user);
+        when(orderMapper.toSummaryDto(any(OrderSummary.class))).thenAnswer(invocation -> {
+            OrderSummary summary = invocation.getArgument(0);
+            var dto = new OrderSummaryDto();
+            dto.setId(summary.getId());
+            dto.setItemCount(summary.getItemCount());
+            return dto;
+        });
+
+        var seen = new ArrayList<Long>();
+        String cursor = null;
+        do {
+            var page = orderService.getOrders(cursor, 2);
+            assertThat(page.getItems()).allSatisfy(order -> assertThat(order.getItemCount()).isEqualTo(1));
+            page.getItems().forEach(order -> seen.add(order.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(seen).containsExactly(ids.get(4), ids.get(3), ids.get(2), ids.get(1), ids.get(0));
+    }
 }
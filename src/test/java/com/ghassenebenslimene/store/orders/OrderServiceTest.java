@@ -8,14 +8,20 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.AccessDeniedException;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,30 +35,33 @@ class OrderServiceTest {
     @Mock
     private OrderMapper orderMapper;
 
+    @Mock
+    private OrderViewService orderViewService;
+
     @InjectMocks
     private OrderService orderService;
 
     @Test
-    void getAllOrdersReturnsMappedDtos() {
+    void getOrdersReturnsOnePageOfSummariesWithCursor() {
         var user = new User();
         user.setId(1L);
         user.setRole(Role.USER);
 
-        var order = new Order();
-        order.setId(10L);
-        order.setCustomer(user);
-
-        var dto = new OrderDto();
-        dto.setId(10L);
+        var createdAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+        var summaries = List.of(summary(12L, createdAt), summary(11L, createdAt), summary(10L, createdAt));
 
         when(authService.getCurrentUser()).thenReturn(user);
-        when(orderRepository.getOrdersByCustomer(eq(user))).thenReturn(List.of(order));
-        when(orderMapper.toDto(eq(order))).thenReturn(dto);
+        when(orderRepository.findSummariesByCustomer(eq(1L), eq(Limit.of(3)))).thenReturn(summaries);
+        when(orderMapper.toSummaryDto(any(OrderSummary.class))).thenAnswer(invocation -> {
+            var dto = new OrderSummaryDto();
+            dto.setId(invocation.<OrderSummary>getArgument(0).getId());
+            return dto;
+        });
 
-        var result = orderService.getAllOrders();
+        var result = orderService.getOrders(null, 2);
 
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getId()).isEqualTo(10L);
+        assertThat(result.getItems()).extracting(OrderSummaryDto::getId).containsExactly(12L, 11L);
+        assertThat(OrderCursor.decode(result.getNextCursor())).isEqualTo(new OrderCursor(createdAt, 11L));
     }
 
     @Test
@@ -77,7 +86,27 @@ class OrderServiceTest {
     }
 
     @Test
-    void getOrderReturnsMappedDto() {
+    void getOrderServesStoredViewWithoutLoadingTheOrder() {
+        var user = new User();
+        user.setId(3L);
+        user.setRole(Role.USER);
+
+        var view = new OrderView(99L, 3L, "{\"id\":99}");
+        var dto = new OrderDto();
+        dto.setId(99L);
+
+        when(authService.getCurrentUser()).thenReturn(user);
+        when(orderViewService.find(eq(99L))).thenReturn(Optional.of(view));
+        when(orderViewService.parse(eq(view))).thenReturn(dto);
+
+        var result = orderService.getOrder(99L);
+
+        assertThat(result.getId()).isEqualTo(99L);
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void getOrderRendersAndStoresMissingView() {
         var user = new User();
         user.setId(3L);
         user.setRole(Role.USER);
@@ -86,15 +115,32 @@ class OrderServiceTest {
         order.setId(99L);
         order.setCustomer(user);
 
-        var dto = new OrderDto();
-        dto.setId(99L);
+        var view = new OrderView(99L, 3L, "{\"id\":99}");
 
+        when(authService.getCurrentUser()).thenReturn(user);
         when(orderRepository.getOrderWithItems(eq(99L))).thenReturn(Optional.of(order));
+        when(orderViewService.writeIfAbsent(eq(order))).thenReturn(view);
+
+        assertThat(orderService.getOrderJson(99L)).isEqualTo("{\"id\":99}");
+    }
+
+    @Test
+    void getOrderRejectsStoredViewOfAnotherCustomer() {
+        var user = new User();
+        user.setId(3L);
+        user.setRole(Role.USER);
+
         when(authService.getCurrentUser()).thenReturn(user);
-        when(orderMapper.toDto(eq(order))).thenReturn(dto);
+        when(orderViewService.find(eq(99L))).thenReturn(Optional.of(new OrderView(99L, 4L, "{}")));
 
-        var result = orderService.getOrder(99L);
+        assertThatThrownBy(() -> orderService.getOrder(99L))
+                .isInstanceOf(AccessDeniedException.class);
+    }
 
-        assertThat(result.getId()).isEqualTo(99L);
+    private static OrderSummary summary(Long id, LocalDateTime createdAt) {
+        var summary = mock(OrderSummary.class);
+        lenient().when(summary.getId()).thenReturn(id);
+        lenient().when(summary.getCreatedAt()).thenReturn(createdAt);
+        return summary;
     }
 }
@@ -0,0 +1,118 @@
+package com.ghassenebenslimene.store.orders;
+
+import com.ghassenebenslimene.store.auth.JwtService;
+import com.ghassenebenslimene.store.common.Money;
+import com.ghassenebenslimene.store.users.Role;
+import com.ghassenebenslimene.store.users.User;
+import com.ghassenebenslimene.store.users.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Not @Transactional, like OrderExportControllerIntegrationTest: the stream
+// is authenticated with a real token, as the JWT filter does not run again
+// for the async dispatch that completes it.
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OrderStatusStreamControllerIntegrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderViewRepository orderViewRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrderStatusStreams orderStatusStreams;
+
+    private User customer;
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        customer = new User();
+        customer.setName("Waiting");
+        customer.setEmail("waiting@example.com");
+        customer.setPassword("secret");
+        customer.setRole(Role.USER);
+        userRepository.save(customer);
+
+        order = new Order();
+        order.setCustomer(customer);
+        order.setStatus(PaymentStatus.PENDING);
+        order.setCreatedAt(LocalDateTime.now());
+        order.setTotalPrice(Money.of(BigDecimal.TEN));
+        orderRepository.save(order);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderViewRepository.deleteAll();
+        orderRepository.delete(order);
+        userRepository.delete(customer);
+    }
+
+    @Test
+    void pushesStatusChangesThroughTheAsyncDispatch() throws Exception {
+        var result = mockMvc.perform(get("/orders/{orderId}/events", order.getId())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtService.generateAccessToken(customer))
+                .accept(MediaType.TEXT_EVENT_STREAM))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        order.setStatus(PaymentStatus.PAID);
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(order, PaymentStatus.PENDING));
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+            .andExpect(content().string(containsString("\"status\":\"PENDING\"")))
+            .andExpect(content().string(containsString("\"status\":\"PAID\"")));
+    }
+
+    @Test
+    void streamOfAMissingOrderGivesItsSlotBack() throws Exception {
+        // A view left behind by an order that is gone.
+        var missingOrderId = order.getId() + 1000;
+        orderViewRepository.save(new OrderView(missingOrderId, customer.getId(), "{}"));
+        var openStreams = orderStatusStreams.getOpenStreams();
+
+        mockMvc.perform(get("/orders/{orderId}/events", missingOrderId)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtService.generateAccessToken(customer))
+                .accept(MediaType.TEXT_EVENT_STREAM))
+            .andExpect(status().isNotFound());
+
+        assertThat(orderStatusStreams.getOpenStreams()).isEqualTo(openStreams);
+    }
+}
@@ -0,0 +1,46 @@
+package com.ghassenebenslimene.store.orders;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderStatusStreamsTest {
+    private OrderStatusStreams streams;
+
+    @BeforeEach
+    void setUp() {
+        var config = new OrderEventsConfig();
+        config.setMaxStreams(3);
+        streams = new OrderStatusStreams(config, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void rejectsStreamsBeyondTheCap() {
+        streams.open(1L);
+        streams.open(1L);
+        streams.open(2L);
+
+        assertThatThrownBy(() -> streams.open(3L)).isInstanceOf(TooManyOrderStreamsException.class);
+        assertThat(streams.getOpenStreams()).isEqualTo(3);
+    }
+
+    @Test
+    void finalStatusClosesOnlyThatOrdersStreams() {
+        streams.open(1L);
+        streams.open(1L);
+        streams.open(2L);
+        var order = new Order();
+        order.setId(1L);
+
+        order.setStatus(PaymentStatus.PENDING);
+        streams.onOrderStatusChanged(new OrderStatusChangedEvent(order, PaymentStatus.PENDING));
+        assertThat(streams.getOpenStreams()).isEqualTo(3);
+
+        order.setStatus(PaymentStatus.PAID);
+        streams.onOrderStatusChanged(new OrderStatusChangedEvent(order, PaymentStatus.PENDING));
+        assertThat(streams.getOpenStreams()).isEqualTo(1);
+    }
+}
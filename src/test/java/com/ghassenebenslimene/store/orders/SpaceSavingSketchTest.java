@@ -0,0 +1,39 @@
+package com.ghassenebenslimene.store.orders;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpaceSavingSketchTest {
+    @Test
+    void topReturnsExactCountsWhileUnderCapacity() {
+        var sketch = new SpaceSavingSketch(10);
+        sketch.add(1, 3);
+        sketch.add(2, 5);
+        sketch.add(1, 4);
+
+        assertThat(sketch.top(10)).containsExactly(
+            new SpaceSavingSketch.Counter(1, 7, 0),
+            new SpaceSavingSketch.Counter(2, 5, 0)
+        );
+    }
+
+    @Test
+    void heavyHittersSurviveALongTailOfRareItems() {
+        var sketch = new SpaceSavingSketch(20);
+        var random = new Random(42);
+        for (var i = 0; i < 10_000; i++) {
+            // Items 1-3 take about 30% of sales; the rest is spread over
+            // 5,000 rare items that keep evicting each other.
+            var item = random.nextInt(10) < 3 ? 1 + random.nextInt(3) : 100 + random.nextInt(5_000);
+            sketch.add(item, 1);
+        }
+
+        assertThat(sketch.top(3))
+            .extracting(SpaceSavingSketch.Counter::item)
+            .containsExactlyInAnyOrder(1L, 2L, 3L);
+        assertThat(sketch.top(100)).hasSize(20);
+    }
+}
@@ -0,0 +1,177 @@
+package com.ghassenebenslimene.store.payments;
+
+import com.ghassenebenslimene.store.auth.AuthService;
+import com.ghassenebenslimene.store.carts.CartRepository;
+import com.ghassenebenslimene.store.carts.CartService;
+import com.ghassenebenslimene.store.inventory.InsufficientStockException;
+import com.ghassenebenslimene.store.inventory.ProductStock;
+import com.ghassenebenslimene.store.inventory.ProductStockRepository;
+import com.ghassenebenslimene.store.inventory.StockReservationRepository;
+import com.ghassenebenslimene.store.orders.OrderRepository;
+import com.ghassenebenslimene.store.orders.OrderViewRepository;
+import com.ghassenebenslimene.store.orders.PaymentStatus;
+import com.ghassenebenslimene.store.products.Product;
+import com.ghassenebenslimene.store.products.ProductRepository;
+import com.ghassenebenslimene.store.users.Role;
+import com.ghassenebenslimene.store.users.User;
+import com.ghassenebenslimene.store.users.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+// Not @Transactional: every checkout commits on its own thread. The pool is
+// smaller than the number of concurrent checkouts, so a checkout that needs
+// a second connection while holding one starves the others and times out.
+@SpringBootTest(properties = {
+    "spring.datasource.hikari.maximum-pool-size=4",
+    "spring.datasource.hikari.connection-timeout=1000"
+})
+@ActiveProfiles("test")
+class CheckoutConcurrencyIntegrationTest {
+    private static final int STOCK = 5;
+    private static final int CHECKOUTS = 16;
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderViewRepository orderViewRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductStockRepository productStockRepository;
+
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockitoBean
+    private PaymentGateway paymentGateway;
+
+    @MockitoBean
+    private AuthService authService;
+
+    private User customer;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        customer = new User();
+        customer.setName("Rush");
+        customer.setEmail("rush@example.com");
+        customer.setPassword("secret");
+        customer.setRole(Role.USER);
+        customer = userRepository.save(customer);
+
+        product = new Product();
+        product.setName("Limited drop");
+        product.setPrice(BigDecimal.TEN);
+        product = productRepository.save(product);
+        productStockRepository.save(new ProductStock(product.getId(), STOCK));
+
+        when(authService.getCurrentUser()).thenReturn(customer);
+        when(paymentGateway.createCheckoutSession(any()))
+            .thenAnswer(invocation -> new CheckoutSession(UUID.randomUUID().toString(), "http://checkout"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        stockReservationRepository.deleteAll();
+        productStockRepository.deleteAll();
+        orderViewRepository.deleteAll();
+        orderRepository.deleteAll();
+        cartRepository.deleteAll();
+        productRepository.delete(product);
+        userRepository.delete(customer);
+    }
+
+    @Test
+    void concurrentCheckoutsNeedOneConnectionEach() throws Exception {
+        var cartIds = new ArrayList<UUID>();
+        for (var i = 0; i < CHECKOUTS; i++) {
+            var cartId = cartService.createCart().getId();
+            cartService.addToCart(cartId, product.getId());
+            cartIds.add(cartId);
+        }
+
+        var executor = Executors.newFixedThreadPool(CHECKOUTS);
+        var start = new CountDownLatch(1);
+        var placed = new AtomicInteger();
+        var outOfStock = new AtomicInteger();
+        var futures = new ArrayList<Future<?>>();
+        for (var cartId : cartIds) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                var request = new CheckoutRequest();
+                request.setCartId(cartId);
+                try {
+                    checkoutService.checkout(request);
+                    placed.incrementAndGet();
+                } catch (InsufficientStockException e) {
+                    outOfStock.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (var future : futures) {
+            // Any other failure, such as a connection timeout, fails here.
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertThat(placed).hasValue(STOCK);
+        assertThat(outOfStock).hasValue(CHECKOUTS - STOCK);
+        assertThat(orderRepository.count()).isEqualTo(STOCK);
+        assertThat(stockReservationRepository.count()).isEqualTo(STOCK);
+        assertThat(productStockRepository.findById(product.getId()).orElseThrow().getQuantity()).isZero();
+    }
+
+    @Test
+    void failedPaymentSessionReleasesTheReservedStock() {
+        var cartId = cartService.createCart().getId();
+        cartService.addToCart(cartId, product.getId());
+        when(paymentGateway.createCheckoutSession(any())).thenThrow(new PaymentException("Gateway down"));
+
+        var request = new CheckoutRequest();
+        request.setCartId(cartId);
+        assertThatThrownBy(() -> checkoutService.checkout(request)).isInstanceOf(PaymentException.class);
+
+        assertThat(orderRepository.findAll()).singleElement()
+            .satisfies(order -> assertThat(order.getStatus()).isEqualTo(PaymentStatus.CANCELED));
+        assertThat(stockReservationRepository.count()).isZero();
+        assertThat(productStockRepository.findById(product.getId()).orElseThrow().getQuantity()).isEqualTo(STOCK);
+    }
+}
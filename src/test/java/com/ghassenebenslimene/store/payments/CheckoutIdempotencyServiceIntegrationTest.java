@@ -0,0 +1,204 @@
+package com.ghassenebenslimene.store.payments;
+
+import com.ghassenebenslimene.store.carts.CartConflictException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Not @Transactional: keys are claimed and completed in their own
+// transactions, and duplicates run on separate threads.
+@SpringBootTest
+@ActiveProfiles("test")
+class CheckoutIdempotencyServiceIntegrationTest {
+    private static final long CUSTOMER_ID = 42L;
+
+    @Autowired
+    private CheckoutIdempotencyService checkoutIdempotencyService;
+
+    @Autowired
+    private CheckoutIdempotencyKeyRepository repository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CheckoutIdempotencyConfig config;
+
+    private final AtomicInteger checkouts = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void concurrentDuplicatesWaitForTheFirstCheckout() throws Exception {
+        var cartId = UUID.randomUUID();
+        var executor = Executors.newFixedThreadPool(8);
+        var start = new CountDownLatch(1);
+        var results = new ArrayList<Future<CheckoutResponse>>();
+        for (var i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return checkoutIdempotencyService.execute(CUSTOMER_ID, "retry-1", cartId, attempt -> slowCheckout(100L));
+            }));
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        for (var result : results) {
+            assertThat(result.get().getOrderId()).isEqualTo(100L);
+        }
+        assertThat(checkouts).hasValue(1);
+
+        var row = repository.findByCustomerIdAndIdempotencyKey(CUSTOMER_ID, "retry-1").orElseThrow();
+        assertThat(row.getOrderId()).isEqualTo(100L);
+    }
+
+    @Test
+    void completedCheckoutIsReplayedFromTheTableAfterARestart() {
+        var cartId = UUID.randomUUID();
+        checkoutIdempotencyService.execute(CUSTOMER_ID, "retry-2", cartId, attempt -> slowCheckout(7L));
+
+        var restarted = new CheckoutIdempotencyService(repository, transactionTemplate, config);
+        var response = restarted.execute(CUSTOMER_ID, "retry-2", cartId, attempt -> slowCheckout(8L));
+
+        assertThat(response.getOrderId()).isEqualTo(7L);
+        assertThat(checkouts).hasValue(1);
+        assertThatThrownBy(() -> restarted.execute(CUSTOMER_ID, "retry-2", UUID.randomUUID(), attempt -> slowCheckout(9L)))
+            .isInstanceOf(IdempotencyKeyReusedException.class);
+    }
+
+    @Test
+    void failedCheckoutReleasesTheKey() {
+        var cartId = UUID.randomUUID();
+        assertThatThrownBy(() -> checkoutIdempotencyService.execute(CUSTOMER_ID, "retry-3", cartId, attempt -> {
+            attempt.orderPlaced();
+            attempt.orderCanceled();
+            throw new PaymentException("stripe error");
+        })).isInstanceOf(PaymentException.class);
+
+        var response = checkoutIdempotencyService.execute(CUSTOMER_ID, "retry-3", cartId, attempt -> slowCheckout(11L));
+
+        assertThat(response.getOrderId()).isEqualTo(11L);
+    }
+
+    @Test
+    void checkoutFailingAfterItsPaymentSessionIsReplayed() {
+        var cartId = UUID.randomUUID();
+        assertThatThrownBy(() -> checkoutIdempotencyService.execute(CUSTOMER_ID, "retry-4", cartId, attempt -> {
+            attempt.orderPlaced();
+            attempt.paymentSessionCreated(new CheckoutResponse(12L, "http://checkout/12"));
+            throw new CartConflictException();
+        })).isInstanceOf(CartConflictException.class);
+
+        var response = checkoutIdempotencyService.execute(CUSTOMER_ID, "retry-4", cartId, attempt -> slowCheckout(13L));
+
+        assertThat(response.getOrderId()).isEqualTo(12L);
+        assertThat(checkouts).hasValue(0);
+        var row = repository.findByCustomerIdAndIdempotencyKey(CUSTOMER_ID, "retry-4").orElseThrow();
+        assertThat(row.getCheckoutUrl()).isEqualTo("http://checkout/12");
+    }
+
+    @Test
+    void checkoutFailingAfterItsOrderCommittedKeepsTheKey() {
+        var cartId = UUID.randomUUID();
+        assertThatThrownBy(() -> checkoutIdempotencyService.execute(CUSTOMER_ID, "retry-5", cartId, attempt -> {
+            attempt.orderPlaced();
+            throw new IllegalStateException("gateway misbehaved");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThatThrownBy(() -> checkoutIdempotencyService.execute(CUSTOMER_ID, "retry-5", cartId, attempt -> slowCheckout(14L)))
+            .isInstanceOf(CheckoutInProgressException.class);
+        assertThat(checkouts).hasValue(0);
+    }
+
+    @Test
+    void checkoutWithAnUnknownPaymentOutcomeKeepsTheKey() {
+        var cartId = UUID.randomUUID();
+        assertThatThrownBy(() -> checkoutIdempotencyService.execute(CUSTOMER_ID, "retry-9", cartId, attempt -> {
+            attempt.orderPlaced();
+            attempt.paymentOutcomeUnknown();
+            throw new PaymentOutcomeUnknownException("read timed out");
+        })).isInstanceOf(PaymentOutcomeUnknownException.class);
+
+        assertThatThrownBy(() -> checkoutIdempotencyService.execute(CUSTOMER_ID, "retry-9", cartId, attempt -> slowCheckout(20L)))
+            .isInstanceOf(CheckoutInProgressException.class);
+        assertThat(checkouts).hasValue(0);
+    }
+
+    @Test
+    void claimNamingAnOrderNeverTimesOut() {
+        var cartId = UUID.randomUUID();
+        var service = new CheckoutIdempotencyService(repository, transactionTemplate, withoutClaimTimeout());
+        assertThatThrownBy(() -> service.execute(CUSTOMER_ID, "retry-6", cartId, attempt -> {
+            transactionTemplate.executeWithoutResult(status -> attempt.recordOrder(15L));
+            attempt.orderPlaced();
+            throw new IllegalStateException("gateway timed out");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThatThrownBy(() -> service.execute(CUSTOMER_ID, "retry-6", cartId, attempt -> slowCheckout(16L)))
+            .isInstanceOf(CheckoutInProgressException.class);
+        checkoutIdempotencyService.deleteExpiredKeys();
+        assertThat(repository.findByCustomerIdAndIdempotencyKey(CUSTOMER_ID, "retry-6").orElseThrow().getOrderId())
+            .isEqualTo(15L);
+        assertThat(checkouts).hasValue(0);
+    }
+
+    @Test
+    void claimTakenOverAfterTimingOutCannotRecordItsOrder() {
+        var cartId = UUID.randomUUID();
+        var service = new CheckoutIdempotencyService(repository, transactionTemplate, withoutClaimTimeout());
+        var takeover = new CheckoutIdempotencyService(repository, transactionTemplate, withoutClaimTimeout());
+
+        assertThatThrownBy(() -> service.execute(CUSTOMER_ID, "retry-7", cartId, attempt -> {
+            takeover.execute(CUSTOMER_ID, "retry-7", cartId, duplicate -> slowCheckout(17L));
+            transactionTemplate.executeWithoutResult(status -> attempt.recordOrder(18L));
+            return slowCheckout(18L);
+        })).isInstanceOf(CheckoutInProgressException.class);
+
+        var row = repository.findByCustomerIdAndIdempotencyKey(CUSTOMER_ID, "retry-7").orElseThrow();
+        assertThat(row.getOrderId()).isEqualTo(17L);
+    }
+
+    @Test
+    void checkoutWhoseClaimIsGoneFails() {
+        var cartId = UUID.randomUUID();
+        assertThatThrownBy(() -> checkoutIdempotencyService.execute(CUSTOMER_ID, "retry-8", cartId, attempt -> {
+            repository.deleteAll();
+            return slowCheckout(19L);
+        })).isInstanceOf(IllegalStateException.class);
+    }
+
+    private CheckoutIdempotencyConfig withoutClaimTimeout() {
+        var config = new CheckoutIdempotencyConfig();
+        config.setClaimTimeout(Duration.ZERO);
+        return config;
+    }
+
+    private CheckoutResponse slowCheckout(Long orderId) {
+        checkouts.incrementAndGet();
+        try {
+            Thread.sleep(200);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return new CheckoutResponse(orderId, "http://checkout/" + orderId);
+    }
+}
@@ -5,6 +5,7 @@ import com.ghassenebenslimene.store.carts.Cart;
 import com.ghassenebenslimene.store.carts.CartItem;
 import com.ghassenebenslimene.store.carts.CartRepository;
 import com.ghassenebenslimene.store.orders.OrderRepository;
+import com.ghassenebenslimene.store.orders.OrderViewRepository;
 import com.ghassenebenslimene.store.products.Category;
 import com.ghassenebenslimene.store.products.CategoryRepository;
 import com.ghassenebenslimene.store.products.Product;
@@ -12,6 +13,7 @@ import com.ghassenebenslimene.store.products.ProductRepository;
 import com.ghassenebenslimene.store.users.Role;
 import com.ghassenebenslimene.store.users.User;
 import com.ghassenebenslimene.store.users.UserRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -39,6 +41,9 @@ class CheckoutServiceIntegrationTest {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private OrderViewRepository orderViewRepository;
+
     @Autowired
     private ProductRepository productRepository;
 
@@ -48,6 +53,9 @@ class CheckoutServiceIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     @MockitoBean
     private PaymentGateway paymentGateway;
 
@@ -95,7 +103,7 @@ class CheckoutServiceIntegrationTest {
 
         when(authService.getCurrentUser()).thenReturn(user);
         when(paymentGateway.createCheckoutSession(any()))
-                .thenReturn(new CheckoutSession("http://checkout"));
+                .thenReturn(new CheckoutSession("cs_test_1", "http://checkout"));
 
         var request = new CheckoutRequest();
         request.setCartId(cart.getId());
@@ -108,8 +116,15 @@ class CheckoutServiceIntegrationTest {
         var savedCart = cartRepository.getCartWithItems(cart.getId()).orElseThrow();
         assertThat(savedCart.getItems()).isEmpty();
 
+        // The session id is written with a bulk update.
+        entityManager.clear();
         var orders = orderRepository.findAll();
         assertThat(orders).hasSize(1);
         assertThat(orders.get(0).getCustomer().getId()).isEqualTo(user.getId());
+        assertThat(orders.get(0).getPaymentSessionId()).isEqualTo("cs_test_1");
+
+        var view = orderViewRepository.findById(response.getOrderId()).orElseThrow();
+        assertThat(view.getCustomerId()).isEqualTo(user.getId());
+        assertThat(view.getBody()).contains("\"status\":\"PENDING\"", "\"totalPrice\":50.00", "\"createdAt\":\"");
     }
 }
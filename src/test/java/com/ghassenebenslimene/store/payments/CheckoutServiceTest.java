@@ -6,8 +6,14 @@ import com.ghassenebenslimene.store.carts.CartEmptyException;
 import com.ghassenebenslimene.store.carts.CartNotFoundException;
 import com.ghassenebenslimene.store.carts.CartRepository;
 import com.ghassenebenslimene.store.carts.CartService;
+import com.ghassenebenslimene.store.inventory.InsufficientStockException;
+import com.ghassenebenslimene.store.inventory.InventoryService;
 import com.ghassenebenslimene.store.orders.Order;
+import com.ghassenebenslimene.store.orders.OrderPlacedEvent;
 import com.ghassenebenslimene.store.orders.OrderRepository;
+import com.ghassenebenslimene.store.orders.OrderStatusChangedEvent;
+import com.ghassenebenslimene.store.orders.OrderViewService;
+import com.ghassenebenslimene.store.orders.PaymentStatus;
 import com.ghassenebenslimene.store.products.Product;
 import com.ghassenebenslimene.store.users.Role;
 import com.ghassenebenslimene.store.users.User;
@@ -16,15 +22,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -45,6 +57,18 @@ class CheckoutServiceTest {
     @Mock
     private PaymentGateway paymentGateway;
 
+    @Mock
+    private InventoryService inventoryService;
+
+    @Mock
+    private OrderViewService orderViewService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
     @InjectMocks
     private CheckoutService checkoutService;
 
@@ -91,18 +115,20 @@ class CheckoutServiceTest {
             return order;
         });
         when(paymentGateway.createCheckoutSession(any(Order.class)))
-                .thenReturn(new CheckoutSession("http://checkout"));
+                .thenReturn(new CheckoutSession("cs_1", "http://checkout"));
 
         var response = checkoutService.checkout(request);
 
         assertThat(response.getOrderId()).isEqualTo(99L);
         assertThat(response.getCheckoutUrl()).isEqualTo("http://checkout");
         verify(cartService).clearCart(eq(request.getCartId()));
-        verify(orderRepository, never()).delete(any(Order.class));
+        verify(orderRepository).recordPaymentSession(99L, "cs_1");
+        verify(orderViewService).write(argThat(order -> order.getId() == 99L));
+        verify(eventPublisher).publishEvent(any(OrderPlacedEvent.class));
     }
 
     @Test
-    void checkoutDeletesOrderWhenPaymentFails() {
+    void checkoutCancelsOrderWhenPaymentFails() {
         var request = new CheckoutRequest();
         request.setCartId(UUID.randomUUID());
 
@@ -120,10 +146,97 @@ class CheckoutServiceTest {
         assertThatThrownBy(() -> checkoutService.checkout(request))
                 .isInstanceOf(PaymentException.class);
 
+        // The order is kept as CANCELED; the status change releases its stock.
+        var eventCaptor = ArgumentCaptor.forClass(OrderStatusChangedEvent.class);
+        verify(eventPublisher).publishEvent(any(OrderPlacedEvent.class));
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getValue().getPreviousStatus()).isEqualTo(PaymentStatus.PENDING);
+        assertThat(eventCaptor.getValue().getOrder().getStatus()).isEqualTo(PaymentStatus.CANCELED);
+        verify(orderRepository, never()).delete(any(Order.class));
+        verify(orderRepository, never()).recordPaymentSession(any(), any());
+        verify(cartService, never()).clearCart(any());
+        verify(orderViewService, times(2)).write(eventCaptor.getValue().getOrder());
+    }
+
+    @Test
+    void checkoutCancelsOrderWhenTheGatewayFailsInAnyKnownWay() {
+        var request = new CheckoutRequest();
+        request.setCartId(UUID.randomUUID());
+
+        when(cartRepository.getCartWithItems(eq(request.getCartId())))
+                .thenReturn(Optional.of(TestData.cartWithItem(request.getCartId())));
+        when(authService.getCurrentUser()).thenReturn(new User());
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(paymentGateway.createCheckoutSession(any(Order.class)))
+                .thenThrow(new IllegalArgumentException("bad line item"));
+
+        assertThatThrownBy(() -> checkoutService.checkout(request))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        var eventCaptor = ArgumentCaptor.forClass(OrderStatusChangedEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getValue().getOrder().getStatus()).isEqualTo(PaymentStatus.CANCELED);
+    }
+
+    @Test
+    void checkoutLeavesOrderPendingWhenThePaymentOutcomeIsUnknown() {
+        var request = new CheckoutRequest();
+        request.setCartId(UUID.randomUUID());
+
+        when(cartRepository.getCartWithItems(eq(request.getCartId())))
+                .thenReturn(Optional.of(TestData.cartWithItem(request.getCartId())));
+        when(authService.getCurrentUser()).thenReturn(new User());
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(paymentGateway.createCheckoutSession(any(Order.class)))
+                .thenThrow(new PaymentOutcomeUnknownException("read timed out"));
+
+        assertThatThrownBy(() -> checkoutService.checkout(request))
+                .isInstanceOf(PaymentOutcomeUnknownException.class);
+
         var orderCaptor = ArgumentCaptor.forClass(Order.class);
-        verify(orderRepository).delete(orderCaptor.capture());
+        verify(orderRepository).save(orderCaptor.capture());
+        assertThat(orderCaptor.getValue().getStatus()).isEqualTo(PaymentStatus.PENDING);
+        verify(eventPublisher, never()).publishEvent(any(OrderStatusChangedEvent.class));
         verify(cartService, never()).clearCart(any());
-        assertThat(orderCaptor.getValue().getStatus()).isNotNull();
+    }
+
+    @Test
+    void checkoutStopsBeforePaymentWhenStockIsInsufficient() {
+        var request = new CheckoutRequest();
+        request.setCartId(UUID.randomUUID());
+
+        var cart = TestData.cartWithItem(request.getCartId());
+
+        when(cartRepository.getCartWithItems(eq(request.getCartId()))).thenReturn(Optional.of(cart));
+        when(authService.getCurrentUser()).thenReturn(new User());
+        doThrow(new InsufficientStockException(1L)).when(inventoryService).reserve(any(Order.class));
+
+        assertThatThrownBy(() -> checkoutService.checkout(request))
+                .isInstanceOf(InsufficientStockException.class);
+
+        verify(paymentGateway, never()).createCheckoutSession(any());
+        verify(cartService, never()).clearCart(any());
+    }
+
+    @Test
+    void webhookPublishesStatusChangeOnlyWhenStatusChanges() {
+        var request = new WebhookRequest(Map.of(), "{}");
+        var order = new Order();
+        order.setId(3L);
+        order.setStatus(PaymentStatus.PENDING);
+
+        when(paymentGateway.parseWebhookRequest(request))
+                .thenReturn(Optional.of(new PaymentResult(3L, PaymentStatus.PAID)));
+        when(orderRepository.getOrderWithItems(3L)).thenReturn(Optional.of(order));
+
+        checkoutService.handleWebhookEvent(request);
+        checkoutService.handleWebhookEvent(request);
+
+        var eventCaptor = ArgumentCaptor.forClass(OrderStatusChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(eventCaptor.capture());
+        verify(orderViewService, times(1)).write(order);
+        assertThat(eventCaptor.getValue().getPreviousStatus()).isEqualTo(PaymentStatus.PENDING);
+        assertThat(eventCaptor.getValue().getOrder().getStatus()).isEqualTo(PaymentStatus.PAID);
     }
 
     private static final class TestData {
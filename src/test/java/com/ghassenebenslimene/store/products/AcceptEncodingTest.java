@@ -0,0 +1,42 @@
+package com.ghassenebenslimene.store.products;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AcceptEncodingTest {
+    @Test
+    void acceptsListedCodings() {
+        assertThat(AcceptEncoding.accepts("gzip", "gzip")).isTrue();
+        assertThat(AcceptEncoding.accepts("br, GZIP;q=0.5", "gzip")).isTrue();
+        assertThat(AcceptEncoding.accepts("deflate, x-gzip", "gzip")).isTrue();
+    }
+
+    @Test
+    void rejectsCodingsWithZeroQuality() {
+        assertThat(AcceptEncoding.accepts("gzip;q=0", "gzip")).isFalse();
+        assertThat(AcceptEncoding.accepts("br, gzip ; q=0.000", "gzip")).isFalse();
+        assertThat(AcceptEncoding.accepts("*, gzip;q=0", "gzip")).isFalse();
+    }
+
+    @Test
+    void fallsBackToTheWildcard() {
+        assertThat(AcceptEncoding.accepts("br, *;q=0.1", "gzip")).isTrue();
+        assertThat(AcceptEncoding.accepts("br, *;q=0", "gzip")).isFalse();
+    }
+
+    @Test
+    void rejectsMissingUnlistedAndLookalikeCodings() {
+        assertThat(AcceptEncoding.accepts(null, "gzip")).isFalse();
+        assertThat(AcceptEncoding.accepts("", "gzip")).isFalse();
+        assertThat(AcceptEncoding.accepts("identity", "gzip")).isFalse();
+        assertThat(AcceptEncoding.accepts("nogzip, gzipped", "gzip")).isFalse();
+    }
+
+    @Test
+    void ignoresEntriesWithUnreadableQuality() {
+        assertThat(AcceptEncoding.accepts("gzip;q=high", "gzip")).isFalse();
+        assertThat(AcceptEncoding.accepts("gzip;q=2", "gzip")).isFalse();
+        assertThat(AcceptEncoding.accepts("gzip;level=9", "gzip")).isTrue();
+    }
+}
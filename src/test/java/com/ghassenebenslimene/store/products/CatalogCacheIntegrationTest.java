@@ -0,0 +1,114 @@
+package com.ghassenebenslimene.store.products;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Not @Transactional: the caches outlive transactions, and the controller's
+// writes must commit before the evicted entries are read again.
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(roles = "ADMIN")
+class CatalogCacheIntegrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        nativeCache(CatalogCaches.PRODUCTS).invalidateAll();
+        nativeCache(CatalogCaches.CATEGORIES).invalidateAll();
+        category = categoryRepository.save(new Category("Garden"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        categoryRepository.delete(category);
+        nativeCache(CatalogCaches.CATEGORIES).invalidateAll();
+    }
+
+    @Test
+    void secondCategoryLookupIsServedFromTheCache() {
+        var categories = nativeCache(CatalogCaches.CATEGORIES);
+        var before = categories.stats();
+
+        var first = categoryRepository.findById(category.getId()).orElseThrow();
+        var second = categoryRepository.findById(category.getId()).orElseThrow();
+
+        assertThat(second).isSameAs(first);
+        var stats = categories.stats().minus(before);
+        assertThat(stats.missCount()).isEqualTo(1);
+        assertThat(stats.hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void productIsCachedOnReadAndEvictedOnUpdateAndDelete() throws Exception {
+        var product = new Product();
+        product.setName("Rake");
+        product.setDescription("Steel rake");
+        product.setPrice(BigDecimal.valueOf(15));
+        product.setCategory(category);
+        productRepository.save(product);
+        var id = product.getId();
+
+        var products = nativeCache(CatalogCaches.PRODUCTS);
+        var before = products.stats();
+
+        var first = productRepository.findById(id).orElseThrow();
+        var second = productRepository.findById(id).orElseThrow();
+        assertThat(second).isSameAs(first);
+        assertThat(products.asMap()).containsKey(id);
+        var stats = products.stats().minus(before);
+        assertThat(stats.missCount()).isEqualTo(1);
+        assertThat(stats.hitCount()).isEqualTo(1);
+
+        mockMvc.perform(put("/products/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Leaf rake\",\"description\":\"Steel rake\",\"price\":17,\"categoryId\":"
+                    + category.getId() + "}"))
+            .andExpect(status().isOk());
+        assertThat(products.asMap()).doesNotContainKey(id);
+        assertThat(productRepository.findById(id).orElseThrow().getName()).isEqualTo("Leaf rake");
+        assertThat(products.asMap()).containsKey(id);
+
+        mockMvc.perform(delete("/products/{id}", id))
+            .andExpect(status().isNoContent());
+        assertThat(products.asMap()).doesNotContainKey(id);
+        assertThat(productRepository.findById(id)).isEmpty();
+        // Misses are not cached.
+        assertThat(products.asMap()).doesNotContainKey(id);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache<Object, Object> nativeCache(String name) {
+        return ((CaffeineCache) cacheManager.getCache(name)).getNativeCache();
+    }
+}
@@ -0,0 +1,87 @@
+package com.ghassenebenslimene.store.products;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvRecordReaderTest {
+    @Test
+    void readsQuotedCommasEscapedQuotesAndLineBreaks() throws IOException {
+        var records = readAll("name,description\n\"Lamp, desk\",\"Warm \"\"soft\"\"\nlight\"\n");
+
+        assertThat(records).containsExactly(
+            List.of("name", "description"),
+            List.of("Lamp, desk", "Warm \"soft\"\nlight"));
+    }
+
+    @Test
+    void acceptsCrlfAndKeepsItInsideQuotedFields() throws IOException {
+        var records = readAll("a,b\r\n\"1\r\n2\",3\r\n");
+
+        assertThat(records).containsExactly(List.of("a", "b"), List.of("1\r\n2", "3"));
+    }
+
+    @Test
+    void keepsEmptyFieldsAndSkipsBlankLines() throws IOException {
+        var records = readAll("a,,c\n\n,\n\nlast");
+
+        assertThat(records).containsExactly(List.of("a", "", "c"), List.of("", ""), List.of("last"));
+    }
+
+    @Test
+    void reportsTheLineEachRecordStartsOn() throws IOException {
+        var reader = new CsvRecordReader(new StringReader("header\r\n\"two\nlines\"\r\n\r\nafter\n"));
+        var lines = new ArrayList<Long>();
+        while (reader.read() != null) {
+            lines.add(reader.getRecordLine());
+        }
+
+        assertThat(lines).containsExactly(1L, 2L, 5L);
+    }
+
+    @Test
+    void quoteInsideAnUnquotedFieldIsLiteral() throws IOException {
+        assertThat(readAll("5\" screen,x\n")).containsExactly(List.of("5\" screen", "x"));
+    }
+
+    @Test
+    void rejectsUnterminatedQuotedField() throws IOException {
+        var reader = new CsvRecordReader(new StringReader("ok\n\"never closed,\nstill open"));
+
+        assertThat(reader.read()).containsExactly("ok");
+        assertThatThrownBy(reader::read)
+            .isInstanceOf(CsvRecordReader.MalformedRecordException.class)
+            .hasMessage("Unterminated quoted field");
+        assertThat(reader.getRecordLine()).isEqualTo(2L);
+        assertThat(reader.read()).isNull();
+    }
+
+    @Test
+    void skipsRecordsLongerThanTheLimitAndCarriesOn() throws IOException {
+        var reader = new CsvRecordReader(new StringReader("ab,cd\n0123\"56789,\"x\ny\"\nok,\"\"\n"), 5);
+
+        assertThat(reader.read()).containsExactly("ab", "cd");
+        assertThatThrownBy(reader::read)
+            .isInstanceOf(CsvRecordReader.MalformedRecordException.class)
+            .hasMessage("Record is longer than 5 characters");
+        assertThat(reader.getRecordLine()).isEqualTo(2L);
+        assertThat(reader.read()).containsExactly("ok", "");
+        assertThat(reader.getRecordLine()).isEqualTo(4L);
+    }
+
+    private static List<List<String>> readAll(String csv) throws IOException {
+        var reader = new CsvRecordReader(new StringReader(csv));
+        var records = new ArrayList<List<String>>();
+        List<String> record;
+        while ((record = reader.read()) != null) {
+            records.add(record);
+        }
+        return records;
+    }
+}
@@ -0,0 +1,159 @@
+package com.ghassenebenslimene.store.products;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Not @Transactional: versions and timestamps are assigned when the
+// controller's writes commit.
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(roles = "ADMIN")
+class ProductConditionalGetIntegrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    @Autowired
+    private ProductListingSnapshots productListingSnapshots;
+
+    private Category category;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        category = categoryRepository.save(new Category("Kitchen"));
+
+        product = new Product();
+        product.setName("Kettle");
+        product.setDescription("Electric kettle");
+        product.setPrice(BigDecimal.valueOf(30));
+        product.setCategory(category);
+        productRepository.save(product);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mockMvc.perform(delete("/products/{id}", product.getId()));
+        categoryRepository.delete(category);
+    }
+
+    @Test
+    void productIsRevalidatedWithETagAndLastModified() throws Exception {
+        var response = mockMvc.perform(get("/products/{id}", product.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + product.getId() + "-0\""))
+            .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+            .andReturn().getResponse();
+        var etag = response.getHeader(HttpHeaders.ETAG);
+        var lastModified = response.getHeader(HttpHeaders.LAST_MODIFIED);
+
+        mockMvc.perform(get("/products/{id}", product.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+        mockMvc.perform(get("/products/{id}", product.getId()).header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+            .andExpect(status().isNotModified());
+
+        update("Kettle, steel");
+
+        mockMvc.perform(get("/products/{id}", product.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + product.getId() + "-1\""))
+            .andExpect(content().string(containsString("Kettle, steel")));
+    }
+
+    @Test
+    void listingIsRevalidatedAgainstTheCatalogVersion() throws Exception {
+        // Makes sure the catalog has a modification time to report.
+        update("Kettle");
+        var version = catalogVersionService.getCurrentVersion().getVersion();
+        var response = mockMvc.perform(get("/products"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + version + "\""))
+            .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+            .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT_ENCODING)))
+            .andReturn().getResponse();
+        var etag = response.getHeader(HttpHeaders.ETAG);
+        var lastModified = response.getHeader(HttpHeaders.LAST_MODIFIED);
+
+        mockMvc.perform(get("/products").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT_ENCODING)));
+        mockMvc.perform(get("/products").header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+            .andExpect(status().isNotModified());
+
+        update("Kettle, glass");
+
+        assertThat(catalogVersionService.getCurrentVersion().getVersion()).isEqualTo(version + 1);
+        mockMvc.perform(get("/products").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + (version + 1) + "\""));
+    }
+
+    @Test
+    void gzipSnapshotIsTaggedApartFromTheIdentityListing() throws Exception {
+        update("Kettle");
+        productListingSnapshots.rebuild();
+        var version = catalogVersionService.getCurrentVersion().getVersion();
+        var gzipEtag = "\"" + version + "-gzip\"";
+
+        mockMvc.perform(get("/products").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andExpect(header().string(HttpHeaders.ETAG, gzipEtag));
+        mockMvc.perform(get("/products")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .header(HttpHeaders.IF_NONE_MATCH, gzipEtag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT_ENCODING)));
+
+        // A client that no longer takes gzip must not revalidate the gzip body.
+        mockMvc.perform(get("/products").header(HttpHeaders.IF_NONE_MATCH, gzipEtag))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + version + "\""));
+    }
+
+    @Test
+    void browsedListingVariesByAcceptEncoding() throws Exception {
+        mockMvc.perform(get("/products").param("facets", "true"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT_ENCODING)));
+    }
+
+    private void update(String name) throws Exception {
+        mockMvc.perform(put("/products/{id}", product.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"" + name + "\",\"description\":\"Electric kettle\",\"price\":30,\"categoryId\":"
+                    + category.getId() + "}"))
+            .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,85 @@
+package com.ghassenebenslimene.store.products;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductFacetIndexTest {
+    private ProductFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductFacetIndex(null, new ProductFacetConfig());
+        index.put(1L, new BigDecimal("4.99"), (byte) 1);
+        index.put(2L, new BigDecimal("12.50"), (byte) 1);
+        index.put(3L, new BigDecimal("30.00"), (byte) 2);
+        index.put(4L, new BigDecimal("9.99"), (byte) 2);
+        index.put(5L, new BigDecimal("150.00"), (byte) 3);
+    }
+
+    @Test
+    void queryFiltersByCategoriesAndPriceRange() {
+        var page = index.query(filter(Set.of((byte) 1, (byte) 2), "5", "50", ProductSort.ID), null, 20);
+
+        assertThat(page.getProductIds()).containsExactly(2L, 3L, 4L);
+        assertThat(page.getFacets().getTotal()).isEqualTo(3);
+    }
+
+    @Test
+    void facetCountsIgnoreTheirOwnFilter() {
+        var page = index.query(filter(Set.of((byte) 1), null, "10", ProductSort.ID), null, 20);
+        var facets = page.getFacets();
+
+        assertThat(page.getProductIds()).containsExactly(1L);
+        // Category counts apply the price filter only.
+        assertThat(facets.getCategories()).containsEntry((byte) 1, 1).containsEntry((byte) 2, 1).hasSize(2);
+        // Price buckets apply the category filter only.
+        assertThat(facets.getPrices()).extracting(PriceBucketDto::getCount).containsExactly(1, 1, 0, 0, 0);
+    }
+
+    @Test
+    void queryPaginatesByPriceInBothDirections() {
+        var ascending = filter(null, null, null, ProductSort.PRICE_ASC);
+        var first = index.query(ascending, null, 2);
+        var second = index.query(ascending, first.getNextCursor(), 2);
+        var third = index.query(ascending, second.getNextCursor(), 2);
+
+        assertThat(first.getProductIds()).containsExactly(1L, 4L);
+        assertThat(second.getProductIds()).containsExactly(2L, 3L);
+        assertThat(third.getProductIds()).containsExactly(5L);
+        assertThat(third.getNextCursor()).isNull();
+
+        var descending = filter(null, null, null, ProductSort.PRICE_DESC);
+        var top = index.query(descending, null, 3);
+        var rest = index.query(descending, top.getNextCursor(), 3);
+
+        assertThat(top.getProductIds()).containsExactly(5L, 3L, 2L);
+        assertThat(rest.getProductIds()).containsExactly(4L, 1L);
+    }
+
+    @Test
+    void putAndRemoveKeepColumnsCurrent() {
+        index.put(2L, new BigDecimal("2.00"), (byte) 3);
+        index.remove(3L);
+        index.put(0L, new BigDecimal("1.00"), (byte) 1);
+
+        var page = index.query(filter(null, null, null, ProductSort.PRICE_ASC), null, 20);
+
+        assertThat(page.getProductIds()).containsExactly(0L, 2L, 1L, 4L, 5L);
+        assertThat(page.getFacets().getCategories())
+            .containsEntry((byte) 1, 2).containsEntry((byte) 2, 1).containsEntry((byte) 3, 2);
+    }
+
+    private static ProductFilter filter(Set<Byte> categoryIds, String minPrice, String maxPrice, ProductSort sort) {
+        return new ProductFilter(
+            categoryIds,
+            minPrice != null ? new BigDecimal(minPrice) : null,
+            maxPrice != null ? new BigDecimal(maxPrice) : null,
+            sort
+        );
+    }
+}
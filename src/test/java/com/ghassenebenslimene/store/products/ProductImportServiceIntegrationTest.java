@@ -0,0 +1,180 @@
+package com.ghassenebenslimene.store.products;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+    "catalog.import.batch-size=2",
+    "catalog.import.max-reported-errors=3",
+    "catalog.import.max-row-length=200"
+})
+@ActiveProfiles("test")
+@RecordApplicationEvents
+@Transactional
+class ProductImportServiceIntegrationTest {
+    // No category has this id: the test schema starts empty.
+    private static final byte UNKNOWN_CATEGORY = 120;
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        category = categoryRepository.save(new Category("Lighting"));
+    }
+
+    @Test
+    void csvImportReportsTheLineOfEachRejectedRow() throws IOException {
+        var csv = "name,price,description,categoryId\r\n" +
+            "\"Lamp, desk\",12.50,\"Warm \"\"soft\"\"\r\nlight\"," + category.getId() + "\r\n" +
+            "Broken,abc,x," + category.getId() + "\r\n" +
+            "Ghost,1,x," + UNKNOWN_CATEGORY + "\r\n" +
+            "\r\n" +
+            "Sconce,40,," + category.getId() + "\r\n";
+
+        var result = productImportService.importProducts(input(csv), ProductImportFormat.CSV);
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(ProductImportErrorDto::getLine).containsExactly(4L, 5L);
+        assertThat(result.getErrors()).extracting(ProductImportErrorDto::getError)
+            .containsExactly("Invalid price: abc", "Unknown category: " + UNKNOWN_CATEGORY);
+
+        var lamp = importedProduct("Lamp, desk");
+        assertThat(lamp.getPrice()).isEqualByComparingTo("12.50");
+        assertThat(lamp.getDescription()).isEqualTo("Warm \"soft\"\r\nlight");
+        assertThat(lamp.getCategory().getId()).isEqualTo(category.getId());
+        assertThat(importedProduct("Sconce").getDescription()).isEmpty();
+    }
+
+    @Test
+    void ndjsonImportReportsMalformedLinesAndCarriesOn() throws IOException {
+        var ndjson = "{\"name\":\"Bulb\",\"price\":3,\"categoryId\":" + category.getId() + "}\n" +
+            "{bad\n" +
+            "\n" +
+            "{\"name\":\"Shade\",\"price\":9,\"categoryId\":" + UNKNOWN_CATEGORY + "}\n" +
+            "{\"name\":\"\",\"price\":9,\"categoryId\":" + category.getId() + "}\n" +
+            "{\"name\":\"Cord\",\"price\":1.999,\"categoryId\":" + category.getId() + "}\n" +
+            "{\"name\":\"Switch\",\"price\":2,\"categoryId\":" + category.getId() + "}";
+
+        var result = productImportService.importProducts(input(ndjson), ProductImportFormat.NDJSON);
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(4);
+        // Only the first three errors are reported.
+        assertThat(result.getErrors()).extracting(ProductImportErrorDto::getLine).containsExactly(2L, 4L, 5L);
+        assertThat(result.getErrors().get(0).getError()).startsWith("Malformed JSON");
+        assertThat(importedProduct("Switch").getPrice()).isEqualByComparingTo("2");
+    }
+
+    @Test
+    void rowsAreInsertedInBatchesOfTheConfiguredSize() throws IOException {
+        var csv = new StringBuilder("name,price,categoryId\n");
+        for (var i = 1; i <= 5; i++) {
+            csv.append("Item ").append(i).append(",").append(i).append(",").append(category.getId()).append("\n");
+            if (i == 2) {
+                // A rejected row does not count towards the batch.
+                csv.append("Rejected,-1,").append(category.getId()).append("\n");
+            }
+        }
+
+        var result = productImportService.importProducts(input(csv.toString()), ProductImportFormat.CSV);
+
+        assertThat(result.getImported()).isEqualTo(5);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getErrors()).singleElement()
+            .satisfies(error -> assertThat(error.getLine()).isEqualTo(4L));
+        assertThat(events.stream(ProductsSavedEvent.class))
+            .extracting(event -> event.getProducts().size())
+            .containsExactly(2, 2, 1);
+        assertThat(events.stream(ProductsSavedEvent.class).flatMap(event -> event.getProducts().stream()))
+            .allSatisfy(product -> assertThat(productRepository.findById(product.getId())).isPresent());
+    }
+
+    @Test
+    void errorCountKeepsGoingPastTheReportingCap() throws IOException {
+        var csv = new StringBuilder("name,price,categoryId\n");
+        for (var i = 0; i < 5; i++) {
+            csv.append(",1,").append(category.getId()).append("\n");
+        }
+
+        var result = productImportService.importProducts(input(csv.toString()), ProductImportFormat.CSV);
+
+        assertThat(result.getImported()).isZero();
+        assertThat(result.getFailed()).isEqualTo(5);
+        assertThat(result.getErrors()).extracting(ProductImportErrorDto::getLine).containsExactly(2L, 3L, 4L);
+        assertThat(events.stream(ProductsSavedEvent.class)).isEmpty();
+    }
+
+    @Test
+    void overlongRowsAreReportedWithoutStoppingTheImport() throws IOException {
+        var longName = "x".repeat(500);
+        var csv = "name,price,categoryId\n" +
+            longName + ",1," + category.getId() + "\n" +
+            "Kept,1," + category.getId() + "\n";
+        var ndjson = "{\"name\":\"" + longName + "\",\"price\":1,\"categoryId\":" + category.getId() + "}\r\n" +
+            "{\"name\":\"Also kept\",\"price\":1,\"categoryId\":" + category.getId() + "}\r\n";
+
+        var csvResult = productImportService.importProducts(input(csv), ProductImportFormat.CSV);
+        var ndjsonResult = productImportService.importProducts(input(ndjson), ProductImportFormat.NDJSON);
+
+        assertThat(csvResult.getImported()).isEqualTo(1);
+        assertThat(csvResult.getErrors()).singleElement()
+            .isEqualTo(new ProductImportErrorDto(2L, "Record is longer than 200 characters"));
+        assertThat(ndjsonResult.getImported()).isEqualTo(1);
+        assertThat(ndjsonResult.getErrors()).singleElement()
+            .isEqualTo(new ProductImportErrorDto(1L, "Line is longer than 200 characters"));
+        assertThat(importedProduct("Also kept").getName()).isEqualTo("Also kept");
+    }
+
+    @Test
+    void unterminatedQuoteFailsItsRowAndKeepsTheRowsBeforeIt() throws IOException {
+        var csv = "name,price,categoryId\n" +
+            "Lamp,1," + category.getId() + "\n" +
+            "\"Stray,1," + category.getId() + "\n" +
+            "Swallowed,1," + category.getId() + "\n";
+
+        var result = productImportService.importProducts(input(csv), ProductImportFormat.CSV);
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getErrors()).singleElement()
+            .isEqualTo(new ProductImportErrorDto(3L, "Unterminated quoted field"));
+        assertThat(importedProduct("Lamp").getPrice()).isEqualByComparingTo("1");
+    }
+
+    private Product importedProduct(String name) {
+        return events.stream(ProductsSavedEvent.class)
+            .flatMap(event -> event.getProducts().stream())
+            .filter(product -> product.getName().equals(name))
+            .findFirst()
+            .flatMap(product -> productRepository.findById(product.getId()))
+            .orElseThrow();
+    }
+
+    private static ByteArrayInputStream input(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
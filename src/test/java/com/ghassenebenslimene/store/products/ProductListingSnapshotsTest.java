@@ -0,0 +1,73 @@
+package com.ghassenebenslimene.store.products;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductListingSnapshotsTest {
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private CatalogVersionService catalogVersionService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    @InjectMocks
+    private ProductListingSnapshots snapshots;
+
+    @Test
+    void rebuildRendersJsonAndGzipForCurrentVersion() throws IOException {
+        var category = new Category("Fruit");
+        category.setId((byte) 1);
+        when(catalogVersionService.getCurrentVersion()).thenReturn(new CatalogVersion((byte) 1, 7L, Instant.now()));
+        when(categoryRepository.findAll()).thenReturn(List.of(category));
+        when(productService.getProducts(isNull(), isNull(), eq(ProductService.DEFAULT_PAGE_SIZE), eq(false)))
+            .thenReturn(new ProductPageDto(List.of(), null));
+        when(productService.getProducts(eq((byte) 1), isNull(), eq(ProductService.DEFAULT_PAGE_SIZE), eq(false)))
+            .thenReturn(new ProductPageDto(List.of(), "next"));
+
+        snapshots.rebuild();
+
+        var all = snapshots.get(null, 7L).orElseThrow();
+        var fruit = snapshots.get((byte) 1, 7L).orElseThrow();
+        assertThat(new String(all.getJson())).isEqualTo("{\"items\":[],\"nextCursor\":null}");
+        assertThat(new GZIPInputStream(new ByteArrayInputStream(fruit.getGzip())).readAllBytes())
+            .isEqualTo(fruit.getJson());
+        assertThat(snapshots.get(null, 8L)).isEmpty();
+        assertThat(snapshots.get((byte) 2, 7L)).isEmpty();
+    }
+
+    @Test
+    void writesDuringPendingRebuildScheduleOnlyOnce() {
+        snapshots.onProductsSaved(new ProductsSavedEvent(List.of()));
+        snapshots.onProductDeleted(new ProductDeletedEvent(1L));
+
+        verify(taskScheduler, times(1)).schedule(any(Runnable.class), any(Instant.class));
+    }
+}
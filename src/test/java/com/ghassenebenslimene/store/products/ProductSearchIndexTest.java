@@ -0,0 +1,67 @@
+package com.ghassenebenslimene.store.products;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSearchIndexTest {
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex(null, null);
+        index.put(product(1L, "Bananas", "Fresh organic bananas sold per pound."));
+        index.put(product(2L, "Whole Milk", "1 gallon of whole milk from grass-fed cows."));
+        index.put(product(3L, "Banana Bread", "Moist bread baked with ripe bananas."));
+        index.put(product(4L, "Orange Juice", "Fresh squeezed orange juice, no added sugar."));
+    }
+
+    @Test
+    void searchRanksNameMatchesAboveDescriptionMatches() {
+        var result = index.search("banana", 0, 20);
+
+        assertThat(result.getTotal()).isEqualTo(2);
+        assertThat(result.getItems()).extracting(ProductDto::getId).containsExactly(1L, 3L);
+    }
+
+    @Test
+    void searchIgnoresCaseAccentsAndStopWords() {
+        var result = index.search("THE Frésh", 0, 20);
+
+        assertThat(result.getItems()).extracting(ProductDto::getId).containsExactlyInAnyOrder(1L, 4L);
+    }
+
+    @Test
+    void searchPaginatesResults() {
+        var firstPage = index.search("fresh bread milk", 0, 2);
+        var secondPage = index.search("fresh bread milk", 1, 2);
+
+        assertThat(firstPage.getTotal()).isEqualTo(4);
+        assertThat(firstPage.getItems()).hasSize(2);
+        assertThat(secondPage.getItems()).hasSize(2);
+        assertThat(secondPage.getItems()).doesNotContainAnyElementsOf(firstPage.getItems());
+    }
+
+    @Test
+    void putReplacesAndRemoveDropsDocuments() {
+        index.put(product(2L, "Oat Milk", "Barista oat drink."));
+        index.remove(1L);
+
+        assertThat(index.search("cows", 0, 20).getItems()).isEmpty();
+        assertThat(index.search("oat", 0, 20).getItems()).extracting(ProductDto::getId).containsExactly(2L);
+        assertThat(index.search("banana", 0, 20).getItems()).extracting(ProductDto::getId).containsExactly(3L);
+    }
+
+    private static ProductDto product(Long id, String name, String description) {
+        var product = new ProductDto();
+        product.setId(id);
+        product.setName(name);
+        product.setDescription(description);
+        product.setPrice(BigDecimal.ONE);
+        product.setCategoryId((byte) 1);
+        return product;
+    }
+}
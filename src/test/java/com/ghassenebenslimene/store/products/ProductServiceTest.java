@@ -0,0 +1,143 @@
+package com.ghassenebenslimene.store.products;
+
+import com.ghassenebenslimene.store.common.InvalidCursorException;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductServiceTest {
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductMapper productMapper;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager(CatalogCaches.PRODUCTS);
+
+    @InjectMocks
+    private ProductService productService;
+
+    @Test
+    void getProductsReturnsNextCursorWhenMoreRowsExist() {
+        when(productRepository.findSummaries(eq(0L), eq(Limit.of(3))))
+                .thenReturn(summaries(1, 2, 3));
+        when(productMapper.toDto(any(ProductSummary.class))).thenAnswer(invocation -> {
+            var dto = new ProductDto();
+            dto.setId(((ProductSummary) invocation.getArgument(0)).getId());
+            return dto;
+        });
+
+        var page = productService.getProducts(null, null, 2, false);
+
+        assertThat(page.getItems()).extracting(ProductDto::getId).containsExactly(1L, 2L);
+        assertThat(ProductCursor.decode(page.getNextCursor())).isEqualTo(2L);
+    }
+
+    @Test
+    void getProductsContinuesAfterCursor() {
+        when(productRepository.findSummariesByCategoryId(eq((byte) 1), eq(2L), eq(Limit.of(3))))
+                .thenReturn(summaries(5));
+        when(productMapper.toDto(any(ProductSummary.class))).thenReturn(new ProductDto());
+
+        var page = productService.getProducts((byte) 1, ProductCursor.encode(2L), 2, false);
+
+        assertThat(page.getItems()).hasSize(1);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getProductsLoadsEntitiesWhenDescriptionIsRequested() {
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), eq(Limit.of(21))))
+                .thenReturn(List.of(Product.builder().id(1L).description("Long text").build()));
+        when(productMapper.toDto(any(Product.class))).thenAnswer(invocation -> {
+            var dto = new ProductDto();
+            dto.setDescription(((Product) invocation.getArgument(0)).getDescription());
+            return dto;
+        });
+
+        var page = productService.getProducts(null, null, 20, true);
+
+        assertThat(page.getItems()).extracting(ProductDto::getDescription).containsExactly("Long text");
+        verify(productRepository, never()).findSummaries(any(), any());
+    }
+
+    @Test
+    void getProductsRejectsMalformedCursor() {
+        assertThatThrownBy(() -> productService.getProducts(null, "not a cursor", 20, false))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    void getProductsByIdsUsesCacheAndReportsMissingIdsInRequestOrder() {
+        var cached = product(1L);
+        var loaded = product(2L);
+        cacheManager.getCache(CatalogCaches.PRODUCTS).put(1L, cached);
+        when(productRepository.findByIdIn(List.of(2L, 3L))).thenReturn(List.of(loaded));
+        when(productMapper.toDtos(anyList())).thenAnswer(invocation -> {
+            List<Product> products = invocation.getArgument(0);
+            return products.stream().map(product -> {
+                var dto = new ProductDto();
+                dto.setId(product.getId());
+                return dto;
+            }).toList();
+        });
+
+        var result = productService.getProductsByIds(List.of(2L, 1L, 3L, 2L));
+
+        assertThat(result.getItems()).extracting(ProductDto::getId).containsExactly(2L, 1L);
+        assertThat(result.getMissing()).containsExactly(3L);
+        assertThat(cacheManager.getCache(CatalogCaches.PRODUCTS).get(2L, Product.class)).isSameAs(loaded);
+    }
+
+    private static Product product(long id) {
+        var product = new Product();
+        product.setId(id);
+        return product;
+    }
+
+    private static List<ProductSummary> summaries(long... ids) {
+        return LongStream.of(ids)
+                .mapToObj(id -> (ProductSummary) new Summary(id))
+                .toList();
+    }
+
+    private record Summary(Long getId) implements ProductSummary {
+        @Override
+        public String getName() {
+            return null;
+        }
+
+        @Override
+        public BigDecimal getPrice() {
+            return null;
+        }
+
+        @Override
+        public Byte getCategoryId() {
+            return null;
+        }
+    }
+}